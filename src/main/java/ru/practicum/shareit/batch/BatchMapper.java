@@ -0,0 +1,36 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class BatchMapper {
+    public static <T, D> List<BatchResultDto<D>> toBatchResultDto(List<BatchResult<T>> results,
+                                                                  Function<T, D> mapper) {
+        List<BatchResultDto<D>> dtos = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult<T> result = results.get(i);
+            if (result.getError() == null) {
+                dtos.add(new BatchResultDto<>(i, HttpStatus.OK.value(), mapper.apply(result.getValue()), null));
+            } else {
+                dtos.add(new BatchResultDto<>(i, statusOf(result.getError()).value(), null,
+                        result.getError().getMessage()));
+            }
+        }
+        return dtos;
+    }
+
+    private static HttpStatus statusOf(RuntimeException error) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        return status == null ? HttpStatus.INTERNAL_SERVER_ERROR : status.code();
+    }
+}
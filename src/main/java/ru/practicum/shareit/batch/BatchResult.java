@@ -0,0 +1,21 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Value;
+
+/**
+ * Результат обработки одной строки пакетного запроса: созданная сущность либо причина отказа.
+ */
+@Value
+public class BatchResult<T> {
+
+    T value;
+    RuntimeException error;
+
+    public static <T> BatchResult<T> created(T value) {
+        return new BatchResult<>(value, null);
+    }
+
+    public static <T> BatchResult<T> failed(RuntimeException error) {
+        return new BatchResult<>(null, error);
+    }
+}
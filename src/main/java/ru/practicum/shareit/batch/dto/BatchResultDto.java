@@ -0,0 +1,17 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BatchResultDto<T> {
+
+    private int index;
+
+    private int status;
+
+    private T result;
+
+    private String error;
+}
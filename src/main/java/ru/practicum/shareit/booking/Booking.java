@@ -1,7 +0,0 @@
-package ru.practicum.shareit.booking;
-
-/**
- * // TODO .
- */
-public class Booking {
-}
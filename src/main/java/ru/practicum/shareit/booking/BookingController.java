@@ -1,12 +1,66 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
 
-/**
- * // TODO .
- */
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+
+    private final BookingService service;
+
+    @Autowired
+    public BookingController(BookingService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public BookingDto createBooking(@Valid @RequestBody NewBookingDto bookingDto,
+                                    UserPrincipal booker) {
+        Booking booking = BookingMapper.toBooking(bookingDto, booker.getId());
+        return BookingMapper.toBookingDto(service.createBooking(booking, booker));
+    }
+
+    @PatchMapping("/{bookingId}")
+    public BookingDto reviewBooking(@PathVariable Long bookingId,
+                                    @RequestParam boolean approved,
+                                    UserPrincipal owner) {
+        return BookingMapper.toBookingDto(service.reviewBooking(bookingId, owner, approved));
+    }
+
+    @GetMapping("/{bookingId}")
+    public BookingDto getBookingById(@PathVariable Long bookingId,
+                                     UserPrincipal user) {
+        return BookingMapper.toBookingDto(service.getBookingById(bookingId, user));
+    }
+
+    @GetMapping
+    public List<BookingDto> getBookingsByBooker(@RequestParam(defaultValue = "ALL") String state,
+                                                @RequestParam(defaultValue = "0") long after,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                UserPrincipal booker) {
+        return service.getBookingsByBooker(booker, state, after, size)
+                .stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping("/owner")
+    public List<BookingDto> getBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
+                                               @RequestParam(defaultValue = "0") long after,
+                                               @RequestParam(defaultValue = "20") int size,
+                                               UserPrincipal owner) {
+        return service.getBookingsByOwner(owner, state, after, size)
+                .stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Бронирования хранятся в той же базе, что и вещи; владелец берется из items, поэтому бронирования
+ * удаленной вещи удаляются вместе с ней. Рассмотрение блокирует строку вещи, так что подтверждения
+ * бронирований одной вещи проверяют пересечения по очереди. Страницы, как и в памяти, продолжаются после
+ * ключа (начало, id) последнего бронирования предыдущей страницы и читаются по индексам с этим порядком.
+ */
+@Slf4j
+@Repository
+@Profile("db")
+public class BookingDbRepository implements BookingRepository {
+
+    private static final String SELECT_BOOKINGS = "SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, "
+            + "b.status FROM bookings b ";
+    private static final RowMapper<Booking> BOOKING_ROW_MAPPER = (rs, rowNum) ->
+            new Booking(rs.getLong("id"), rs.getTimestamp("start_date").toLocalDateTime(),
+                    rs.getTimestamp("end_date").toLocalDateTime(), rs.getLong("item_id"), rs.getLong("booker_id"),
+                    Status.valueOf(rs.getString("status")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BookingDbRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Booking createBooking(Booking booking, long ownerId) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)",
+                    new String[]{"id"});
+            statement.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+            statement.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+            statement.setLong(3, booking.getItem());
+            statement.setLong(4, booking.getBooker());
+            statement.setString(5, booking.getStatus().name());
+            return statement;
+        }, keyHolder);
+        log.debug("Пользователь с id {} забронировал вещь с id {}", booking.getBooker(), booking.getItem());
+        return booking.withId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+    }
+
+    @Override
+    @Transactional
+    public Booking approveBooking(long bookingId) {
+        Booking booking = lockWaiting(bookingId);
+        if (hasApprovedOverlap(booking.getItem(), booking.getStart(), booking.getEnd())) {
+            log.warn("Бронирование с id {} пересекается с подтвержденным", bookingId);
+            throw new ConflictingException("Вещь уже забронирована на указанное время");
+        }
+        log.debug("Бронирование с id {} подтверждено", bookingId);
+        return updateStatus(booking, Status.APPROVED);
+    }
+
+    @Override
+    @Transactional
+    public Booking rejectBooking(long bookingId) {
+        Booking booking = lockWaiting(bookingId);
+        log.debug("Бронирование с id {} отклонено", bookingId);
+        return updateStatus(booking, Status.REJECTED);
+    }
+
+    @Override
+    public Optional<Booking> findBookingById(long bookingId) {
+        return jdbcTemplate.query(SELECT_BOOKINGS + "WHERE b.id = ?", BOOKING_ROW_MAPPER, bookingId).stream()
+                .findFirst();
+    }
+
+    @Override
+    public boolean hasApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        return !jdbcTemplate.queryForList("SELECT id FROM bookings WHERE item_id = ? AND status = 'APPROVED' "
+                        + "AND start_date < ? AND end_date > ? LIMIT 1", Long.class,
+                itemId, Timestamp.valueOf(end), Timestamp.valueOf(start)).isEmpty();
+    }
+
+    @Override
+    public List<Booking> getBookingsByBooker(long bookerId, BookingState state, LocalDateTime now,
+                                             long after, int size) {
+        return page("WHERE b.booker_id = ? ", bookerId, state, now, after, size);
+    }
+
+    @Override
+    public List<Booking> getBookingsByOwner(long ownerId, BookingState state, LocalDateTime now,
+                                            long after, int size) {
+        return page("JOIN items i ON i.id = b.item_id WHERE i.owner_id = ? ", ownerId, state, now, after, size);
+    }
+
+    @Override
+    public Booking getLastBooking(long itemId, LocalDateTime now) {
+        return jdbcTemplate.query(SELECT_BOOKINGS + "WHERE b.item_id = ? AND b.status = 'APPROVED' "
+                        + "AND b.start_date <= ? ORDER BY b.start_date DESC LIMIT 1",
+                BOOKING_ROW_MAPPER, itemId, Timestamp.valueOf(now)).stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public Booking getNextBooking(long itemId, LocalDateTime now) {
+        return jdbcTemplate.query(SELECT_BOOKINGS + "WHERE b.item_id = ? AND b.status = 'APPROVED' "
+                        + "AND b.start_date > ? ORDER BY b.start_date LIMIT 1",
+                BOOKING_ROW_MAPPER, itemId, Timestamp.valueOf(now)).stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Booking lockWaiting(long bookingId) {
+        Booking booking = findBookingById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не существует"));
+        jdbcTemplate.queryForList("SELECT id FROM items WHERE id = ? FOR UPDATE", Long.class, booking.getItem());
+        booking = findBookingById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не существует"));
+        if (booking.getStatus() != Status.WAITING) {
+            log.warn("Бронирование с id {} уже рассмотрено", bookingId);
+            throw new IncorrectRequestException("Бронирование уже рассмотрено");
+        }
+        return booking;
+    }
+
+    private Booking updateStatus(Booking booking, Status status) {
+        jdbcTemplate.update("UPDATE bookings SET status = ? WHERE id = ?", status.name(), booking.getId());
+        return booking.withStatus(status);
+    }
+
+    private List<Booking> page(String owned, long userId, BookingState state, LocalDateTime now,
+                               long after, int size) {
+        StringBuilder sql = new StringBuilder(SELECT_BOOKINGS).append(owned);
+        List<Object> arguments = new ArrayList<>(List.of(userId));
+        Timestamp moment = Timestamp.valueOf(now);
+        switch (state) {
+            case FUTURE:
+                sql.append("AND b.start_date > ? ");
+                arguments.add(moment);
+                break;
+            case CURRENT:
+                sql.append("AND b.start_date <= ? AND b.end_date >= ? ");
+                arguments.add(moment);
+                arguments.add(moment);
+                break;
+            case PAST:
+                sql.append("AND b.end_date < ? ");
+                arguments.add(moment);
+                break;
+            case WAITING:
+            case REJECTED:
+                sql.append("AND b.status = ? ");
+                arguments.add(state.name());
+                break;
+            default:
+        }
+        if (after > 0) {
+            Booking last = findBookingById(after).orElseThrow(() -> {
+                log.warn("Страница запрошена после несуществующего бронирования с id {}", after);
+                return new IncorrectRequestException("Бронирование, после которого запрошена страница, не существует");
+            });
+            Timestamp lastStart = Timestamp.valueOf(last.getStart());
+            sql.append("AND (b.start_date < ? OR b.start_date = ? AND b.id < ?) ");
+            arguments.add(lastStart);
+            arguments.add(lastStart);
+            arguments.add(last.getId());
+        }
+        sql.append("ORDER BY b.start_date DESC, b.id DESC LIMIT ?");
+        arguments.add(size);
+        return jdbcTemplate.query(sql.toString(), BOOKING_ROW_MAPPER, arguments.toArray());
+    }
+}
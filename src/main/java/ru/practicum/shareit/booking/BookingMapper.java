@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+
+@Component
+@RequiredArgsConstructor
+public class BookingMapper {
+    public static BookingDto toBookingDto(Booking booking) {
+        return new BookingDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getItem(),
+                booking.getBooker(), booking.getStatus());
+    }
+
+    public static BookingShortDto toBookingShortDto(Booking booking) {
+        return booking == null ? null
+                : new BookingShortDto(booking.getId(), booking.getBooker(), booking.getStart(), booking.getEnd());
+    }
+
+    public static Booking toBooking(NewBookingDto bookingDto, long bookerId) {
+        return new Booking(0, bookingDto.getStart(), bookingDto.getEnd(), bookingDto.getItemId(), bookerId,
+                Status.WAITING);
+    }
+}
@@ -1,4 +1,28 @@
 package ru.practicum.shareit.booking;
 
-public class BookingRepository {
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingRepository {
+    Booking createBooking(Booking booking, long ownerId);
+
+    Booking approveBooking(long bookingId);
+
+    Booking rejectBooking(long bookingId);
+
+    Optional<Booking> findBookingById(long bookingId);
+
+    boolean hasApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end);
+
+    List<Booking> getBookingsByBooker(long bookerId, BookingState state, LocalDateTime now, long after, int size);
+
+    List<Booking> getBookingsByOwner(long ownerId, BookingState state, LocalDateTime now, long after, int size);
+
+    Booking getLastBooking(long itemId, LocalDateTime now);
+
+    Booking getNextBooking(long itemId, LocalDateTime now);
 }
@@ -0,0 +1,300 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.JournalRecord;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Подтвержденные бронирования вещи не пересекаются, поэтому хранятся в отсортированной по началу карте:
+ * пересечение с новым интервалом возможно только у бронирования с наибольшим началом раньше его конца.
+ * Списки бронирований арендатора и владельца упорядочены по убыванию начала и читаются постранично
+ * без сортировки всей истории. Бронирования неизменяемы: смена статуса под монитором вещи заменяет снимок
+ * в {@code bookings}, а списки упорядочены по неизменным полям, поэтому статус при чтении берется оттуда.
+ * Ожидающие, отклоненные и незавершенные бронирования дополнительно лежат в отдельных списках, поэтому
+ * страница этих состояний не просматривает чужие бронирования, а прошедшие пропускают только текущие.
+ * Страница продолжается после ключа (начало, id) последнего бронирования предыдущей страницы: поиск ключа
+ * в списке логарифмический, а пропущенные страницы не просматриваются и не копируются.
+ * Создание и рассмотрение пишутся в журнал вместе с владельцем вещи, чтобы после перезапуска бронирование
+ * вернулось и в историю владельца.
+ */
+@Slf4j
+@Repository
+@Profile("!db")
+public class BookingRepositoryImpl implements BookingRepository {
+
+    private static final Comparator<Booking> NEWEST_FIRST = Comparator.comparing(Booking::getStart)
+            .thenComparingLong(Booking::getId)
+            .reversed();
+    private static final Comparator<Booking> EARLIEST_END_FIRST = Comparator.comparing(Booking::getEnd)
+            .thenComparingLong(Booking::getId);
+
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableMap<LocalDateTime, Booking>> approvedByItem = new ConcurrentHashMap<>();
+    private final Map<Long, History> bookingsByBooker = new ConcurrentHashMap<>();
+    private final Map<Long, History> bookingsByOwner = new ConcurrentHashMap<>();
+    private final Map<Long, Long> ownerByItem = new ConcurrentHashMap<>();
+    private final GeneratorBookingId generatorBookingId;
+    private final Journal journal;
+
+    @Autowired
+    public BookingRepositoryImpl(GeneratorBookingId generatorBookingId, Journal journal) {
+        this.generatorBookingId = generatorBookingId;
+        this.journal = journal;
+    }
+
+    @Override
+    public Booking createBooking(Booking newBooking, long ownerId) {
+        Booking booking;
+        try (Journal.Entry entry = journal.begin()) {
+            booking = newBooking.withId(generatorBookingId.generate());
+            entry.append(JournalRecord.bookingSaved(booking, ownerId));
+            put(booking, ownerId, LocalDateTime.now());
+        }
+        log.debug("Пользователь с id {} забронировал вещь с id {}", booking.getBooker(), booking.getItem());
+        return booking;
+    }
+
+    @Override
+    public Booking approveBooking(long bookingId) {
+        Booking booking = findBookingById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не существует"));
+        NavigableMap<LocalDateTime, Booking> approved = approvedOf(booking.getItem());
+        Booking approvedBooking;
+        try (Journal.Entry entry = journal.begin()) {
+            synchronized (approved) {
+                booking = bookings.get(bookingId);
+                checkWaiting(booking);
+                if (overlaps(approved, booking.getStart(), booking.getEnd())) {
+                    log.warn("Бронирование с id {} пересекается с подтвержденным", bookingId);
+                    throw new ConflictingException("Вещь уже забронирована на указанное время");
+                }
+                approvedBooking = booking.withStatus(Status.APPROVED);
+                bookings.put(bookingId, approvedBooking);
+                approved.put(approvedBooking.getStart(), approvedBooking);
+                moveReviewed(approvedBooking);
+            }
+            entry.append(JournalRecord.bookingSaved(approvedBooking, ownerByItem.get(approvedBooking.getItem())));
+        }
+        log.debug("Бронирование с id {} подтверждено", bookingId);
+        return approvedBooking;
+    }
+
+    @Override
+    public Booking rejectBooking(long bookingId) {
+        Booking booking = findBookingById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не существует"));
+        Booking rejectedBooking;
+        try (Journal.Entry entry = journal.begin()) {
+            synchronized (approvedOf(booking.getItem())) {
+                booking = bookings.get(bookingId);
+                checkWaiting(booking);
+                rejectedBooking = booking.withStatus(Status.REJECTED);
+                bookings.put(bookingId, rejectedBooking);
+                moveReviewed(rejectedBooking);
+            }
+            entry.append(JournalRecord.bookingSaved(rejectedBooking, ownerByItem.get(rejectedBooking.getItem())));
+        }
+        log.debug("Бронирование с id {} отклонено", bookingId);
+        return rejectedBooking;
+    }
+
+    @Override
+    public Optional<Booking> findBookingById(long bookingId) {
+        return Optional.ofNullable(bookings.get(bookingId));
+    }
+
+    @Override
+    public boolean hasApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, Booking> approved = approvedByItem.get(itemId);
+        return approved != null && overlaps(approved, start, end);
+    }
+
+    @Override
+    public List<Booking> getBookingsByBooker(long bookerId, BookingState state, LocalDateTime now,
+                                             long after, int size) {
+        return page(bookingsByBooker.get(bookerId), state, now, after, size);
+    }
+
+    @Override
+    public List<Booking> getBookingsByOwner(long ownerId, BookingState state, LocalDateTime now,
+                                            long after, int size) {
+        return page(bookingsByOwner.get(ownerId), state, now, after, size);
+    }
+
+    @Override
+    public Booking getLastBooking(long itemId, LocalDateTime now) {
+        NavigableMap<LocalDateTime, Booking> approved = approvedByItem.get(itemId);
+        Map.Entry<LocalDateTime, Booking> last = approved == null ? null : approved.floorEntry(now);
+        return last == null ? null : last.getValue();
+    }
+
+    @Override
+    public Booking getNextBooking(long itemId, LocalDateTime now) {
+        NavigableMap<LocalDateTime, Booking> approved = approvedByItem.get(itemId);
+        Map.Entry<LocalDateTime, Booking> next = approved == null ? null : approved.higherEntry(now);
+        return next == null ? null : next.getValue();
+    }
+
+    /**
+     * Восстанавливает бронирования из журнала; владельцы вещей берутся из записей, так как вещь могла быть
+     * удалена вместе с владельцем, а ее бронирования остаются в истории арендатора.
+     */
+    public void restore(Collection<Booking> restoredBookings, Map<Long, Long> restoredOwnerByItem) {
+        LocalDateTime now = LocalDateTime.now();
+        restoredBookings.forEach(booking -> put(booking, restoredOwnerByItem.get(booking.getItem()), now));
+    }
+
+    public void forEachBooking(BiConsumer<Booking, Long> action) {
+        bookings.values().forEach(booking -> action.accept(booking, ownerByItem.get(booking.getItem())));
+    }
+
+    private void put(Booking booking, long ownerId, LocalDateTime now) {
+        bookings.put(booking.getId(), booking);
+        ownerByItem.putIfAbsent(booking.getItem(), ownerId);
+        if (booking.getStatus() == Status.APPROVED) {
+            approvedOf(booking.getItem()).put(booking.getStart(), booking);
+        }
+        bookingsByBooker.computeIfAbsent(booking.getBooker(), id -> new History()).add(booking, now);
+        bookingsByOwner.computeIfAbsent(ownerId, id -> new History()).add(booking, now);
+    }
+
+    private NavigableMap<LocalDateTime, Booking> approvedOf(long itemId) {
+        return approvedByItem.computeIfAbsent(itemId, id -> new ConcurrentSkipListMap<>());
+    }
+
+    private void moveReviewed(Booking reviewed) {
+        bookingsByBooker.get(reviewed.getBooker()).review(reviewed);
+        bookingsByOwner.get(ownerByItem.get(reviewed.getItem())).review(reviewed);
+    }
+
+    private static boolean overlaps(NavigableMap<LocalDateTime, Booking> approved,
+                                    LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Booking> previous = approved.lowerEntry(end);
+        return previous != null && previous.getValue().getEnd().isAfter(start);
+    }
+
+    private static void checkWaiting(Booking booking) {
+        if (booking.getStatus() != Status.WAITING) {
+            log.warn("Бронирование с id {} уже рассмотрено", booking.getId());
+            throw new IncorrectRequestException("Бронирование уже рассмотрено");
+        }
+    }
+
+    private List<Booking> page(History history, BookingState state, LocalDateTime now, long after, int size) {
+        if (history == null) {
+            return Collections.emptyList();
+        }
+        Booking startedAtNow = new Booking(Long.MAX_VALUE, now, now, 0, 0, Status.WAITING);
+        NavigableSet<Booking> view;
+        Predicate<Booking> matches = booking -> true;
+        switch (state) {
+            case FUTURE:
+                view = history.all.headSet(startedAtNow, false);
+                break;
+            case CURRENT:
+                view = history.unfinished.tailSet(startedAtNow, true);
+                matches = booking -> !booking.getEnd().isBefore(now);
+                break;
+            case PAST:
+                view = history.all.tailSet(startedAtNow, true);
+                matches = booking -> booking.getEnd().isBefore(now);
+                break;
+            case WAITING:
+                view = history.waiting;
+                break;
+            case REJECTED:
+                view = history.rejected;
+                break;
+            default:
+                view = history.all;
+        }
+        if (after > 0) {
+            view = view.tailSet(cursorOf(after), false);
+        }
+        List<Booking> page = new ArrayList<>();
+        for (Booking booking : view) {
+            if (page.size() == size) {
+                break;
+            }
+            if (matches.test(booking)) {
+                page.add(bookings.get(booking.getId()));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Ключ страницы: начало и id бронирования, на котором закончилась предыдущая страница. Оба поля
+     * неизменны, поэтому ключ задает место в любом списке, даже если бронирование в нем уже нет.
+     */
+    private Booking cursorOf(long after) {
+        Booking last = bookings.get(after);
+        if (last == null) {
+            log.warn("Страница запрошена после несуществующего бронирования с id {}", after);
+            throw new IncorrectRequestException("Бронирование, после которого запрошена страница, не существует");
+        }
+        return last;
+    }
+
+    /**
+     * История бронирований пользователя. Рассмотренное бронирование сначала попадает в новый список и только
+     * потом покидает список ожидающих, поэтому читатель, сверяющий статус по {@code bookings}, его не теряет.
+     * Незавершенные бронирования дополнительно упорядочены по концу, и закончившиеся уходят из них при
+     * следующем добавлении в историю. Чтение только отбрасывает закончившиеся к {@code now}, поэтому
+     * результат не зависит от того, когда их убрали, и чтение ничего не меняет.
+     */
+    private static class History {
+        private final NavigableSet<Booking> all = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+        private final NavigableSet<Booking> waiting = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+        private final NavigableSet<Booking> rejected = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+        private final NavigableSet<Booking> unfinished = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+        private final NavigableSet<Booking> unfinishedByEnd = new ConcurrentSkipListSet<>(EARLIEST_END_FIRST);
+
+        private void add(Booking booking, LocalDateTime now) {
+            removeEndedBefore(now);
+            all.add(booking);
+            unfinished.add(booking);
+            unfinishedByEnd.add(booking);
+            if (booking.getStatus() == Status.WAITING) {
+                waiting.add(booking);
+            } else if (booking.getStatus() == Status.REJECTED) {
+                rejected.add(booking);
+            }
+        }
+
+        private void review(Booking reviewed) {
+            if (reviewed.getStatus() == Status.REJECTED) {
+                rejected.add(reviewed);
+            }
+            waiting.remove(reviewed);
+        }
+
+        private void removeEndedBefore(LocalDateTime now) {
+            for (Booking booking : unfinishedByEnd) {
+                if (!booking.getEnd().isBefore(now)) {
+                    return;
+                }
+                if (unfinishedByEnd.remove(booking)) {
+                    unfinished.remove(booking);
+                }
+            }
+        }
+    }
+}
@@ -1,4 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import java.util.List;
+
 public interface BookingService {
+    Booking createBooking(Booking booking, UserPrincipal booker);
+
+    Booking reviewBooking(long bookingId, UserPrincipal owner, boolean approved);
+
+    Booking getBookingById(long bookingId, UserPrincipal user);
+
+    List<Booking> getBookingsByBooker(UserPrincipal booker, String state, long after, int size);
+
+    List<Booking> getBookingsByOwner(UserPrincipal owner, String state, long after, int size);
+
+    Booking getLastBooking(long itemId);
+
+    Booking getNextBooking(long itemId);
 }
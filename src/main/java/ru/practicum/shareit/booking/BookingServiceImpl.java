@@ -1,4 +1,116 @@
 package ru.practicum.shareit.booking;
 
-public class BookingServiceImpl implements BookingService{
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+public class BookingServiceImpl implements BookingService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final ItemService itemService;
+
+    @Autowired
+    public BookingServiceImpl(BookingRepository bookingRepository, ItemService itemService) {
+        this.bookingRepository = bookingRepository;
+        this.itemService = itemService;
+    }
+
+    @Override
+    public Booking createBooking(Booking booking, UserPrincipal booker) {
+        Item item = getItem(booking.getItem());
+        if (item.getOwnerId() == booker.getId()) {
+            log.warn("Владелец с id {} не может бронировать свою вещь", booker.getId());
+            throw new NotFoundException("Владелец не может бронировать свою вещь");
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            throw new IncorrectRequestException("Вещь недоступна для бронирования");
+        }
+        if (booking.getStart() == null || booking.getEnd() == null || !booking.getEnd().isAfter(booking.getStart())
+                || booking.getStart().isBefore(LocalDateTime.now())) {
+            throw new IncorrectRequestException("Некорректный период бронирования");
+        }
+        if (bookingRepository.hasApprovedOverlap(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new ConflictingException("Вещь уже забронирована на указанное время");
+        }
+        return bookingRepository.createBooking(booking, item.getOwnerId());
+    }
+
+    @Override
+    public Booking reviewBooking(long bookingId, UserPrincipal owner, boolean approved) {
+        Booking booking = bookingRepository.findBookingById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не существует"));
+        if (getItem(booking.getItem()).getOwnerId() != owner.getId()) {
+            log.warn("Пользователь с id {} не может рассматривать бронирование с id {}", owner.getId(), bookingId);
+            throw new NotFoundException("Бронирование не существует");
+        }
+        return approved ? bookingRepository.approveBooking(bookingId) : bookingRepository.rejectBooking(bookingId);
+    }
+
+    @Override
+    public Booking getBookingById(long bookingId, UserPrincipal user) {
+        Booking booking = bookingRepository.findBookingById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не существует"));
+        if (booking.getBooker() != user.getId() && getItem(booking.getItem()).getOwnerId() != user.getId()) {
+            log.warn("Пользователю с id {} недоступно бронирование с id {}", user.getId(), bookingId);
+            throw new NotFoundException("Бронирование не существует");
+        }
+        return booking;
+    }
+
+    @Override
+    public List<Booking> getBookingsByBooker(UserPrincipal booker, String state, long after, int size) {
+        checkPage(after, size);
+        return bookingRepository.getBookingsByBooker(booker.getId(), parseState(state), LocalDateTime.now(),
+                after, size);
+    }
+
+    @Override
+    public List<Booking> getBookingsByOwner(UserPrincipal owner, String state, long after, int size) {
+        checkPage(after, size);
+        return bookingRepository.getBookingsByOwner(owner.getId(), parseState(state), LocalDateTime.now(),
+                after, size);
+    }
+
+    @Override
+    public Booking getLastBooking(long itemId) {
+        return bookingRepository.getLastBooking(itemId, LocalDateTime.now());
+    }
+
+    @Override
+    public Booking getNextBooking(long itemId) {
+        return bookingRepository.getNextBooking(itemId, LocalDateTime.now());
+    }
+
+    private Item getItem(long itemId) {
+        return itemService.getItemById(itemId);
+    }
+
+    private static BookingState parseState(String state) {
+        try {
+            return BookingState.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new IncorrectRequestException("Unknown state: " + state);
+        }
+    }
+
+    private static void checkPage(long after, int size) {
+        if (after < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IncorrectRequestException("Некорректные параметры страницы: размер от 1 до " + MAX_PAGE_SIZE);
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.Status;
 
@@ -8,6 +9,7 @@ import javax.validation.constraints.Positive;
 import java.time.LocalDateTime;
 
 @Data
+@AllArgsConstructor
 public class BookingDto {
     @NotNull
     @Positive
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class NewBookingDto {
+    @NotNull
+    @Positive
+    private Long itemId;
+
+    @NotNull
+    private LocalDateTime start;
+
+    @NotNull
+    private LocalDateTime end;
+}
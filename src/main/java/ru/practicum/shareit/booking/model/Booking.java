@@ -1,18 +1,21 @@
 package ru.practicum.shareit.booking.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
+import lombok.With;
 
 import java.time.LocalDateTime;
 
-@Data
-@AllArgsConstructor
+/**
+ * Неизменяемый снимок бронирования: смена статуса создает новый экземпляр, который заменяет прежний в хранилище.
+ */
+@Value
+@With
 public class Booking {
 
-    private long id;
-    private LocalDateTime start;
-    private LocalDateTime end;
-    private long item;
-    private long booker;
-    private Status status;
-}
\ No newline at end of file
+    long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    long item;
+    long booker;
+    Status status;
+}
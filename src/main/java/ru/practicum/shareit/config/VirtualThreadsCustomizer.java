@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обрабатывает запросы Tomcat в виртуальных потоках, по одному на запрос, вместо фиксированного пула.
+ * Проект собирается под Java 11, поэтому исполнитель создается через рефлексию; на JVM без виртуальных
+ * потоков (до 21) остается стандартный пул. Простаивающие keep-alive соединения и так не занимают
+ * потоков: их обслуживает поллер NIO-коннектора.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.server.virtual-threads", havingValue = "true")
+public class VirtualThreadsCustomizer implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+
+    private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+    @Override
+    public void customize(ProtocolHandler protocolHandler) {
+        if (executor != null) {
+            protocolHandler.setExecutor(executor);
+            log.info("Запросы обрабатываются в виртуальных потоках");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            log.warn("Виртуальные потоки недоступны в Java {}, используется пул потоков Tomcat",
+                    Runtime.version().feature());
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось создать исполнитель на виртуальных потоках", e);
+        }
+    }
+}
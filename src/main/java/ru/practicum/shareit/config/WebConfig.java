@@ -0,0 +1,25 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.user.UserPrincipalArgumentResolver;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final UserPrincipalArgumentResolver userPrincipalArgumentResolver;
+
+    @Autowired
+    public WebConfig(UserPrincipalArgumentResolver userPrincipalArgumentResolver) {
+        this.userPrincipalArgumentResolver = userPrincipalArgumentResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(userPrincipalArgumentResolver);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.etag;
+
+import ru.practicum.shareit.exception.PreconditionFailedException;
+
+/**
+ * Сильный ETag вида {@code "<id>-<версия>"}: версия сущности меняется при каждом изменении, поэтому тег
+ * годится и для условного GET, и для проверки If-Match перед изменением.
+ */
+public final class VersionTag {
+
+    public static final long ANY_VERSION = 0;
+
+    private VersionTag() {
+    }
+
+    public static String format(long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Возвращает версию, ожидаемую заголовком If-Match, или {@link #ANY_VERSION}, если заголовка нет
+     * или он равен {@code *}. Слабый, чужой или нечитаемый тег не может совпасть с текущим.
+     */
+    public static long parseIfMatch(String ifMatch, long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return ANY_VERSION;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            try {
+                long version = Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                if (version > ANY_VERSION) {
+                    return version;
+                }
+            } catch (NumberFormatException e) {
+                // не наш тег, обрабатывается ниже
+            }
+        }
+        throw new PreconditionFailedException("Тег " + tag + " не соответствует текущей версии");
+    }
+}
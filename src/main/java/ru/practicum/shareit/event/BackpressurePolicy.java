@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event;
+
+public enum BackpressurePolicy {
+    /**
+     * Публикующий поток ждет, пока самый медленный обработчик освободит место в буфере.
+     */
+    BLOCK,
+    /**
+     * Событие отбрасывается, обработчики получают {@link DomainEventHandler#onOverflow()}.
+     */
+    DROP
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Событие об изменении, уже примененном к основному хранилищу.
+ */
+public interface DomainEvent {
+}
@@ -0,0 +1,265 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Шина доменных событий на кольцевом буфере. Публикация кладет событие в следующий слот и сдвигает курсор,
+ * каждый подписчик читает буфер своим потоком от своей позиции до курсора пачками до maxBatchSize событий.
+ * Слот переиспользуется, только когда его прочитали все подписчики, и очищается, как только его прошел
+ * самый медленный из них, чтобы буфер не удерживал старые события; при заполненном буфере действует
+ * {@link BackpressurePolicy}. Подписчик, поток которого завершился из-за ошибки, отписывается, иначе при BLOCK
+ * публикация ждала бы его вечно. Бины подписываются после создания и отменяют подписку при остановке контекста
+ * через {@link Subscription#cancel()}. Отставание подписчиков публикуется метрикой shareit.events.lag.
+ */
+@Slf4j
+@Component
+public class DomainEventBus implements MeterBinder, DisposableBean {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final DomainEvent[] buffer;
+    private final int mask;
+    private final int maxBatchSize;
+    private final BackpressurePolicy backpressure;
+    private final LongAdder dropped = new LongAdder();
+    private final Lock publishLock = new ReentrantLock();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile long cursor = -1;
+    private long cleared = -1;
+    private volatile boolean running = true;
+    private volatile MeterRegistry meterRegistry;
+
+    @Autowired
+    public DomainEventBus(@Value("${shareit.events.buffer-size:8192}") int bufferSize,
+                          @Value("${shareit.events.max-batch-size:256}") int maxBatchSize,
+                          @Value("${shareit.events.backpressure:BLOCK}") BackpressurePolicy backpressure) {
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Размер буфера событий должен быть степенью двойки: " + bufferSize);
+        }
+        buffer = new DomainEvent[bufferSize];
+        mask = bufferSize - 1;
+        this.maxBatchSize = maxBatchSize;
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * Подписывает обработчик на события, опубликованные после подписки, и запускает его поток.
+     * Подписку нужно отменить, когда обработчик больше не нужен.
+     */
+    public Subscription subscribe(String name, DomainEventHandler handler) {
+        Subscription subscription = new Subscription(name, handler);
+        publishLock.lock();
+        try {
+            subscription.sequence = cursor;
+            subscriptions.add(subscription);
+        } finally {
+            publishLock.unlock();
+        }
+        if (meterRegistry != null) {
+            subscription.bindTo(meterRegistry);
+        }
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /**
+     * Публикует событие; возвращает false, если событие отброшено.
+     */
+    public boolean publish(DomainEvent event) {
+        publishLock.lock();
+        try {
+            long next = cursor + 1;
+            while (next - slowestSequence() > buffer.length) {
+                if (backpressure == BackpressurePolicy.DROP || !running) {
+                    dropped.increment();
+                    subscriptions.forEach(subscription -> subscription.handler.onOverflow());
+                    return false;
+                }
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+            buffer[(int) next & mask] = event;
+            cursor = next;
+        } finally {
+            publishLock.unlock();
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.waiting) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+        return true;
+    }
+
+    public long published() {
+        return cursor + 1;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.events.dropped", dropped, LongAdder::sum)
+                .description("События, отброшенные при переполнении буфера")
+                .register(registry);
+        meterRegistry = registry;
+        subscriptions.forEach(subscription -> subscription.bindTo(registry));
+    }
+
+    /**
+     * Дожидается обработки уже опубликованных событий и останавливает потоки подписчиков.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (Subscription subscription : subscriptions) {
+            LockSupport.unpark(subscription.thread);
+            subscription.thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    private long slowestSequence() {
+        long slowest = cursor;
+        for (Subscription subscription : subscriptions) {
+            slowest = Math.min(slowest, subscription.sequence);
+        }
+        return slowest;
+    }
+
+    private void consumeUntilStopped(Subscription subscription) {
+        try {
+            consume(subscription);
+        } catch (Throwable e) {
+            log.error("Поток обработчика {} остановлен ошибкой, обработчик отписан", subscription.name, e);
+        } finally {
+            subscriptions.remove(subscription);
+        }
+    }
+
+    private void consume(Subscription subscription) {
+        List<DomainEvent> batch = new ArrayList<>(maxBatchSize);
+        while (!subscription.cancelled) {
+            long available = cursor;
+            if (available == subscription.sequence) {
+                if (!running) {
+                    return;
+                }
+                subscription.waiting = true;
+                if (cursor == subscription.sequence && running && !subscription.cancelled) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                subscription.waiting = false;
+                continue;
+            }
+            long last = Math.min(available, subscription.sequence + maxBatchSize);
+            for (long sequence = subscription.sequence + 1; sequence <= last; sequence++) {
+                batch.add(buffer[(int) sequence & mask]);
+            }
+            try {
+                subscription.handler.onEvents(batch);
+            } catch (RuntimeException e) {
+                log.error("Обработчик {} не обработал пачку из {} событий", subscription.name, batch.size(), e);
+            }
+            DistributionSummary batchSizes = subscription.batchSizes;
+            if (batchSizes != null) {
+                batchSizes.record(batch.size());
+            }
+            batch.clear();
+            subscription.sequence = last;
+            clearConsumedSlots();
+        }
+    }
+
+    /**
+     * Обнуляет слоты, которые прочитали все подписчики. Под блокировкой публикации курсор не двигается,
+     * поэтому слоты, уже занятые новыми событиями, пропускаются. Если блокировку держит публикация,
+     * очистка откладывается до следующей пачки: ждать здесь нельзя, публикация может ждать этого подписчика.
+     */
+    private void clearConsumedSlots() {
+        if (!publishLock.tryLock()) {
+            return;
+        }
+        try {
+            long slowest = slowestSequence();
+            for (long sequence = Math.max(cleared, cursor - buffer.length) + 1; sequence <= slowest; sequence++) {
+                buffer[(int) sequence & mask] = null;
+            }
+            cleared = Math.max(cleared, slowest);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    public final class Subscription {
+
+        private final String name;
+        private final DomainEventHandler handler;
+        private final Thread thread;
+        private volatile Gauge lagGauge;
+        private volatile DistributionSummary batchSizes;
+        private volatile long sequence;
+        private volatile boolean waiting;
+        private volatile boolean cancelled;
+
+        private Subscription(String name, DomainEventHandler handler) {
+            this.name = name;
+            this.handler = handler;
+            thread = new Thread(() -> consumeUntilStopped(this), "events-" + name);
+            thread.setDaemon(true);
+        }
+
+        public long lag() {
+            return cursor - sequence;
+        }
+
+        public boolean isCaughtUp() {
+            return sequence == cursor;
+        }
+
+        /**
+         * Отписывает обработчик: его поток дочитывает текущую пачку и завершается, события, опубликованные
+         * позже, обработчику не передаются, а его метрики снимаются с реестра.
+         */
+        public void cancel() throws InterruptedException {
+            cancelled = true;
+            subscriptions.remove(this);
+            LockSupport.unpark(thread);
+            if (Thread.currentThread() != thread) {
+                thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            }
+            MeterRegistry registry = meterRegistry;
+            if (registry != null && lagGauge != null) {
+                registry.remove(lagGauge);
+                registry.remove(batchSizes);
+            }
+        }
+
+        private void bindTo(MeterRegistry registry) {
+            lagGauge = Gauge.builder("shareit.events.lag", this, Subscription::lag)
+                    .description("Число опубликованных, но еще не обработанных событий")
+                    .tag("consumer", name)
+                    .register(registry);
+            batchSizes = DistributionSummary.builder("shareit.events.batch.size")
+                    .description("Число событий в пачке, переданной обработчику")
+                    .tag("consumer", name)
+                    .register(registry);
+        }
+    }
+}
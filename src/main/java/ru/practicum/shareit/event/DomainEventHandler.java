@@ -0,0 +1,19 @@
+package ru.practicum.shareit.event;
+
+import java.util.List;
+
+public interface DomainEventHandler {
+
+    /**
+     * Обрабатывает пачку событий в порядке публикации. Список переиспользуется шиной и действителен
+     * только до возврата из метода.
+     */
+    void onEvents(List<DomainEvent> events);
+
+    /**
+     * Вызывается в потоке публикации, когда событие отброшено из-за переполнения буфера: обработчик,
+     * которому нельзя терять события, должен здесь сбросить свое состояние.
+     */
+    default void onOverflow() {
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemCreatedEvent;
+import ru.practicum.shareit.item.ItemUpdatedEvent;
+import ru.practicum.shareit.user.UserUpdatedEvent;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+
+/**
+ * Журналирует изменения вещей и пользователей вне потока запроса. События публикуют in-memory хранилища;
+ * в профиле db шина пуста, и изменения журналируют сами репозитории.
+ */
+@Slf4j
+@Component
+public class DomainEventLog implements DomainEventHandler {
+
+    private final DomainEventBus eventBus;
+    private DomainEventBus.Subscription subscription;
+
+    @Autowired
+    public DomainEventLog(DomainEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        subscription = eventBus.subscribe("log", this);
+    }
+
+    @PreDestroy
+    public void unsubscribe() throws InterruptedException {
+        subscription.cancel();
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        for (DomainEvent event : events) {
+            if (event instanceof ItemCreatedEvent) {
+                ItemCreatedEvent created = (ItemCreatedEvent) event;
+                log.debug("Пользователь с id {} добавил вещь {}", created.getItem().getOwnerId(),
+                        created.getItem().getName());
+            } else if (event instanceof ItemUpdatedEvent) {
+                log.debug("Вещь с id {} обновлена", ((ItemUpdatedEvent) event).getNewItem().getId());
+            } else if (event instanceof UserUpdatedEvent) {
+                log.debug("Пользователь с id {} обновлен", ((UserUpdatedEvent) event).getNewUser().getId());
+            }
+        }
+    }
+}
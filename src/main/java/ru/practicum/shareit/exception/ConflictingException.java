@@ -6,6 +6,6 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 @ResponseStatus(HttpStatus.CONFLICT)
 public class ConflictingException extends RuntimeException {
     public ConflictingException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Value;
+
+@Value
+public class ErrorResponse {
+    String error;
+}
@@ -6,6 +6,6 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class IncorrectRequestException extends RuntimeException {
     public IncorrectRequestException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Колоночное хранилище вещей: поля лежат в примитивных массивах по номеру слота, id переводится в слот
+ * хэш-таблицей с открытой адресацией на массиве long, доступность хранится битовыми наборами, а название
+ * и описание упакованы в один массив байт UTF-8. Объект {@link Item} собирается только при чтении.
+ * Изменения, включая сравнение с заменой, сериализуются блокировкой записи, чтения идут под разделяемой
+ * блокировкой. Нулевой ключ помечает пустую ячейку таблицы, поэтому вещи с id 0 в хранилище не бывает.
+ * Экономия памяти сохраняется, только если поиск идет просмотром хранилища
+ * ({@code shareit.storage.item-search-index=false}): триграммный индекс весит больше самого хранилища.
+ */
+@Component
+@Profile("!db")
+@ConditionalOnProperty(name = "shareit.storage.item-layout", havingValue = "columnar")
+public class ColumnarItemStore implements ItemStore {
+
+    private static final long EMPTY = 0;
+    private static final long NO_REQUEST = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int FOR_EACH_CHUNK = 1024;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] keys = new long[INITIAL_CAPACITY * 2];
+    private int[] slotsByKey = new int[INITIAL_CAPACITY * 2];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] ownerIds = new long[INITIAL_CAPACITY];
+    private long[] requestIds = new long[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private int[] nameLengths = new int[INITIAL_CAPACITY];
+    private byte[][] texts = new byte[INITIAL_CAPACITY][];
+    private final BitSet available = new BitSet();
+    private final BitSet availabilityUnknown = new BitSet();
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int slotCount;
+    private int size;
+
+    @Override
+    public Item get(long itemId) {
+        long stamp = lock.readLock();
+        try {
+            int slot = find(itemId);
+            return slot < 0 ? null : read(slot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void put(Item item) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(item.getId());
+            if (slot < 0) {
+                slot = allocateSlot();
+                insertKey(item.getId(), slot);
+                ids[slot] = item.getId();
+                size++;
+            }
+            write(slot, item);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean replace(Item expected, Item newItem) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(expected.getId());
+            if (slot < 0 || versions[slot] != expected.getVersion()) {
+                return false;
+            }
+            write(slot, newItem);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Item remove(long itemId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(itemId);
+            if (slot < 0) {
+                return null;
+            }
+            Item item = read(slot);
+            removeKey(itemId);
+            ids[slot] = EMPTY;
+            texts[slot] = null;
+            if (freeSlotCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeSlotCount++] = slot;
+            size--;
+            return item;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Обходит слоты порциями, отпуская блокировку между ними, поэтому долгий обход (например, запись
+     * снимка) не останавливает изменения; как и обход {@code ConcurrentHashMap}, он слабо согласован.
+     */
+    @Override
+    public void forEach(Consumer<Item> action) {
+        List<Item> chunk = new ArrayList<>(FOR_EACH_CHUNK);
+        for (int from = 0; ; from += FOR_EACH_CHUNK) {
+            chunk.clear();
+            long stamp = lock.readLock();
+            try {
+                if (from >= slotCount) {
+                    return;
+                }
+                for (int slot = from; slot < Math.min(from + FOR_EACH_CHUNK, slotCount); slot++) {
+                    if (ids[slot] != EMPTY) {
+                        chunk.add(read(slot));
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            chunk.forEach(action);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Item read(int slot) {
+        byte[] text = texts[slot];
+        int nameLength = nameLengths[slot];
+        long requestId = requestIds[slot];
+        return new Item(ids[slot],
+                new String(text, 0, nameLength, StandardCharsets.UTF_8),
+                new String(text, nameLength, text.length - nameLength, StandardCharsets.UTF_8),
+                availabilityUnknown.get(slot) ? null : available.get(slot),
+                ownerIds[slot],
+                requestId == NO_REQUEST ? null : requestId,
+                versions[slot]);
+    }
+
+    private void write(int slot, Item item) {
+        byte[] name = item.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] description = item.getDescription().getBytes(StandardCharsets.UTF_8);
+        byte[] text = Arrays.copyOf(name, name.length + description.length);
+        System.arraycopy(description, 0, text, name.length, description.length);
+        texts[slot] = text;
+        nameLengths[slot] = name.length;
+        ownerIds[slot] = item.getOwnerId();
+        requestIds[slot] = item.getRequestId() == null ? NO_REQUEST : item.getRequestId();
+        versions[slot] = item.getVersion();
+        available.set(slot, Boolean.TRUE.equals(item.getAvailable()));
+        availabilityUnknown.set(slot, item.getAvailable() == null);
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            ownerIds = Arrays.copyOf(ownerIds, capacity);
+            requestIds = Arrays.copyOf(requestIds, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        return slotCount++;
+    }
+
+    private int find(long key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return slotsByKey[i];
+            }
+            if (keys[i] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void insertKey(long key, int slot) {
+        if ((size + 1) * 4L > keys.length * 3L) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while (keys[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        slotsByKey[i] = slot;
+    }
+
+    /**
+     * Удаление со сдвигом назад: следующие за удаленным ключи цепочки пробирования переносятся в дыру,
+     * поэтому таблице не нужны надгробия.
+     */
+    private void removeKey(long key) {
+        int mask = keys.length - 1;
+        int gap = index(key, mask);
+        while (keys[gap] != key) {
+            gap = (gap + 1) & mask;
+        }
+        for (int i = (gap + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = index(keys[i], mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                slotsByKey[gap] = slotsByKey[i];
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldSlots = slotsByKey;
+        keys = new long[capacity];
+        slotsByKey = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = index(oldKeys[j], mask);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                slotsByKey[i] = oldSlots[j];
+            }
+        }
+    }
+
+    private static int index(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
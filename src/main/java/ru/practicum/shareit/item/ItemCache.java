@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру кэш вещей по id (вытеснение W-TinyLFU). Статистика попаданий публикуется
+ * в метриках cache.gets/cache.evictions с тегом cache=items.
+ */
+@Component
+public class ItemCache {
+
+    private final Cache<Long, Item> cache;
+
+    @Autowired
+    public ItemCache(@Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                     MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+    }
+
+    public Item get(long itemId, Function<Long, Item> loader) {
+        return cache.get(itemId, loader);
+    }
+
+    public void evict(long itemId) {
+        cache.invalidate(itemId);
+    }
+
+    public void evictAll(Collection<Long> itemIds) {
+        cache.invalidateAll(itemIds);
+    }
+}
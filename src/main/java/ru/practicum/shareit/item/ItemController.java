@@ -1,9 +1,20 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchMapper;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.etag.VersionTag;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.UserPrincipal;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -12,48 +23,106 @@ import java.util.stream.Collectors;
 @RequestMapping("/items")
 public class ItemController {
 
-    private static final String USER_ID_IN_HEADER = "X-Sharer-User-Id";
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final String DEFAULT_SEARCH_LIMIT = "20";
+    private static final int STREAM_PAGE_SIZE = 500;
 
     private final ItemService service;
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ItemController(ItemService service) {
+    public ItemController(ItemService service, BookingService bookingService, ObjectMapper objectMapper) {
         this.service = service;
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     public ItemDto createItem(@RequestBody ItemDto itemDto,
-                              @RequestHeader(name = USER_ID_IN_HEADER) Long userId) {
+                              UserPrincipal owner) {
         Item item = ItemMapper.toItem(itemDto);
-        return ItemMapper.toItemDto(service.createItem(item, userId));
+        return ItemMapper.toItemDto(service.createItem(item, owner));
+    }
+
+    @PostMapping("/batch")
+    public List<BatchResultDto<ItemDto>> createItems(@RequestBody List<ItemDto> itemDtos,
+                                                     UserPrincipal owner) {
+        List<Item> items = itemDtos.stream()
+                .map(ItemMapper::toItem)
+                .collect(Collectors.toList());
+        return BatchMapper.toBatchResultDto(service.createItems(items, owner), ItemMapper::toItemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ItemDto updateItem(@PathVariable Long itemId,
-                              @RequestHeader(name = USER_ID_IN_HEADER) Long userId,
-                              @RequestBody ItemDto itemDto) {
-        Item newItem = ItemMapper.toItem(itemDto);
-        return ItemMapper.toItemDto(service.updateItem(newItem, userId, itemId));
+    public ResponseEntity<ItemDto> updateItem(@PathVariable Long itemId,
+                                              UserPrincipal owner,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch,
+                                              @RequestBody ItemDto itemDto) {
+        Item newItem = ItemMapper.toItem(itemDto).withVersion(VersionTag.parseIfMatch(ifMatch, itemId));
+        Item updatedItem = service.updateItem(newItem, owner, itemId);
+        return ResponseEntity.ok()
+                .eTag(ItemMapper.toETag(updatedItem))
+                .body(ItemMapper.toItemDto(updatedItem));
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@PathVariable("itemId") Long itemId) {
-        return ItemMapper.toItemDto(service.getItemById(itemId));
+    public ItemDto getItemById(@PathVariable("itemId") Long itemId, WebRequest request) {
+        Item item = service.getItemById(itemId);
+        if (request.checkNotModified(ItemMapper.toETag(item))) {
+            return null;
+        }
+        return ItemMapper.toItemDto(item);
     }
 
     @GetMapping
-    public List<ItemDto> getAllItemsByUser(@RequestHeader(USER_ID_IN_HEADER) Long userId) {
-        return service.getAllItemsByUser(userId)
+    public List<ItemDto> getAllItemsByUser(UserPrincipal owner,
+                                           @RequestParam(defaultValue = "0") long after,
+                                           @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return service.getAllItemsByUser(owner, after, size)
                 .stream()
-                .map(ItemMapper::toItemDto)
+                .map(this::toItemDtoWithBookings)
                 .collect(Collectors.toList());
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllItemsByUser(UserPrincipal owner) {
+        StreamingResponseBody body = out -> {
+            List<Item> page = service.getAllItemsByUser(owner, 0, STREAM_PAGE_SIZE);
+            while (!page.isEmpty()) {
+                for (Item item : page) {
+                    out.write(objectMapper.writeValueAsBytes(toItemDtoWithBookings(item)));
+                    out.write('\n');
+                }
+                out.flush();
+                page = service.getAllItemsByUser(owner, page.get(page.size() - 1).getId(), STREAM_PAGE_SIZE);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> searchItemsByDescription(@RequestParam(name = "text") String text) {
-        return service.searchItemsByDescription(text)
+    public List<ItemDto> searchItemsByDescription(@RequestParam(name = "text") String text,
+                                                  @RequestParam(defaultValue = "0") long after,
+                                                  @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return service.searchItemsByDescription(text, after, size)
                 .stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
+
+    @GetMapping(path = "/search", params = "ranked=true")
+    public List<ItemDto> searchItemsRanked(@RequestParam(name = "text") String text,
+                                           @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) int limit) {
+        return service.searchItemsRanked(text, limit)
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    private ItemDto toItemDtoWithBookings(Item item) {
+        return ItemMapper.toItemDto(item, bookingService.getLastBooking(item.getId()),
+                bookingService.getNextBooking(item.getId()));
+    }
 }
\ No newline at end of file
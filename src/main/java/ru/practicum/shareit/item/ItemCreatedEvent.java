@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.item.model.Item;
+
+@Value
+public class ItemCreatedEvent implements DomainEvent {
+
+    Item item;
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.etag.VersionTag;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@Profile("db")
+public class ItemDbRepository implements ItemRepository {
+
+    private static final String SELECT_ITEMS = "SELECT id, name, description, is_available, owner_id, request_id, version "
+            + "FROM items ";
+    private static final RowMapper<Item> ITEM_ROW_MAPPER = (rs, rowNum) ->
+            new Item(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                    rs.getBoolean("is_available"), rs.getLong("owner_id"),
+                    rs.getObject("request_id", Long.class), rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ItemDbRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Item createItem(Item item, Long userId) {
+        if (item.getAvailable() == null || item.getDescription() == null || item.getName() == null ||
+                item.getName().isBlank()) {
+            throw new IncorrectRequestException("У предмета не указан статус");
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO items (name, description, is_available, owner_id, request_id) "
+                            + "VALUES (?, ?, ?, ?, ?)",
+                    new String[]{"id"});
+            statement.setString(1, item.getName());
+            statement.setString(2, item.getDescription());
+            statement.setBoolean(3, item.getAvailable());
+            statement.setLong(4, userId);
+            statement.setObject(5, item.getRequestId(), Types.BIGINT);
+            return statement;
+        }, keyHolder);
+        log.debug("Пользователь с id {} добавил вещь {}", userId, item.getName());
+        return item.withId(Objects.requireNonNull(keyHolder.getKey()).longValue()).withOwnerId(userId).withVersion(1);
+    }
+
+    @Override
+    public List<BatchResult<Item>> createItems(List<Item> newItems, long userId) {
+        List<BatchResult<Item>> results = new ArrayList<>(newItems.size());
+        for (Item item : newItems) {
+            try {
+                results.add(BatchResult.created(createItem(item, userId)));
+            } catch (IncorrectRequestException e) {
+                results.add(BatchResult.failed(e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Изменяются только переданные поля одним UPDATE, поэтому параллельные изменения разных полей не теряются.
+     * Ожидаемая версия проверяется в том же UPDATE; если строка не изменена, она перечитывается, чтобы отличить
+     * устаревшую версию от чужой или отсутствующей вещи.
+     */
+    @Override
+    public Item updateItem(Item item, Long userId, Long itemId) {
+        int updated = jdbcTemplate.update("UPDATE items SET name = COALESCE(?, name), "
+                        + "description = COALESCE(?, description), is_available = COALESCE(?, is_available) "
+                        + ", version = version + 1 WHERE id = ? AND owner_id = ? AND (? = " + VersionTag.ANY_VERSION + " OR version = ?)",
+                item.getName(), item.getDescription(), item.getAvailable(), itemId, userId, item.getVersion(),
+                item.getVersion());
+        if (updated == 0) {
+            Optional<Item> current = findItemById(itemId).filter(found -> found.getOwnerId() == userId);
+            if (current.isEmpty()) {
+                log.debug("Пользователь с id {} не может изменять вещь с id {}", userId, itemId);
+                throw new NotFoundException("Пользователю недоступно редактирование вещи с id" + itemId);
+            }
+            throw new PreconditionFailedException("Вещь с id " + itemId + " уже изменена, текущая версия "
+                    + current.get().getVersion());
+        }
+        log.debug("Вещь с id {} обновлена", itemId);
+        return findItemById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не существует"));
+    }
+
+    @Override
+    public Optional<Item> findItemById(Long itemId) {
+        return jdbcTemplate.query(SELECT_ITEMS + "WHERE id = ?", ITEM_ROW_MAPPER, itemId).stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Item> getAllItemsByUser(Long userId, long after, int size) {
+        log.debug("Получен список вещей пользователя с id {}", userId);
+        return jdbcTemplate.query(SELECT_ITEMS + "WHERE owner_id = ? AND id > ? ORDER BY id LIMIT ?",
+                ITEM_ROW_MAPPER, userId, after, size);
+    }
+
+    @Override
+    public List<Item> searchItemsByDescription(String text, long after, int size) {
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        log.debug("Получены вещи, актуальные для запроса {}", text);
+        String pattern = "%" + escapeLike(text.toLowerCase()) + "%";
+        return jdbcTemplate.query(SELECT_ITEMS + "WHERE is_available AND id > ? "
+                        + "AND (lower(name) LIKE ? ESCAPE '\\' OR lower(description) LIKE ? ESCAPE '\\') "
+                        + "ORDER BY id LIMIT ?",
+                ITEM_ROW_MAPPER, after, pattern, pattern, size);
+    }
+
+    /**
+     * Упрощенное ранжирование средствами SQL: совпадение всей фразы в названии весит втрое больше,
+     * чем в описании, при равенстве выше вещи с меньшим id.
+     */
+    @Override
+    public List<Item> searchItemsRanked(String text, int limit) {
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        log.debug("Получены {} наиболее релевантных вещей для запроса {}", limit, text);
+        String pattern = "%" + escapeLike(text.toLowerCase()) + "%";
+        return jdbcTemplate.query(SELECT_ITEMS + "WHERE is_available "
+                        + "AND (lower(name) LIKE ? ESCAPE '\\' OR lower(description) LIKE ? ESCAPE '\\') "
+                        + "ORDER BY CASE WHEN lower(name) LIKE ? ESCAPE '\\' THEN 3 ELSE 0 END "
+                        + "+ CASE WHEN lower(description) LIKE ? ESCAPE '\\' THEN 1 ELSE 0 END DESC, id LIMIT ?",
+                ITEM_ROW_MAPPER, pattern, pattern, pattern, pattern, limit);
+    }
+
+    @Override
+    public Map<Long, List<Item>> getItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(requestIds.size(), "?"));
+        return jdbcTemplate.query(SELECT_ITEMS + "WHERE request_id IN (" + placeholders + ") ORDER BY id",
+                        ITEM_ROW_MAPPER, requestIds.toArray()).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+    }
+
+    @Override
+    public void markOwnerRemoved(long ownerId) {
+        // вещи удаляются из базы в одной транзакции с владельцем, скрывать их до удаления не нужно
+    }
+
+    @Override
+    public boolean isOwnerRemoved(long ownerId) {
+        return false;
+    }
+
+    @Override
+    public List<Long> removeItemsOfOwner(long ownerId, int batchSize) {
+        // строки вещей удаляются каскадно вместе с пользователем
+        return Collections.emptyList();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
\ No newline at end of file
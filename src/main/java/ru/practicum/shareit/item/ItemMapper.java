@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.etag.VersionTag;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
@@ -9,11 +12,21 @@ import ru.practicum.shareit.item.model.Item;
 @RequiredArgsConstructor
 public class ItemMapper {
     public static ItemDto toItemDto(Item item) {
-        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getOwnerId());
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getOwnerId(),
+                item.getRequestId(), null, null);
+    }
+
+    public static ItemDto toItemDto(Item item, Booking lastBooking, Booking nextBooking) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getOwnerId(),
+                item.getRequestId(), BookingMapper.toBookingShortDto(lastBooking), BookingMapper.toBookingShortDto(nextBooking));
+    }
+
+    public static String toETag(Item item) {
+        return VersionTag.format(item.getId(), item.getVersion());
     }
 
     public static Item toItem(ItemDto itemDto) {
         return new Item(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable(),
-                itemDto.getOwnerId());
+                itemDto.getOwnerId(), itemDto.getRequestId());
     }
 }
@@ -1,17 +1,39 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.batch.BatchResult;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface ItemRepository {
     Item createItem(Item item, Long userId);
 
+    List<BatchResult<Item>> createItems(List<Item> items, long userId);
+
     Item updateItem(Item item, Long userId, Long itemId);
 
-    Item getItemById(Long itemId);
+    Optional<Item> findItemById(Long itemId);
+
+    /**
+     * Страница вещей с id больше {@code after} по возрастанию id. Id выдаются раньше, чем вещь становится
+     * видна, поэтому при параллельном создании вещь с меньшим id может появиться позже вещи с большим:
+     * клиент, уже прочитавший страницу дальше нее, такую вещь не увидит. Гарантируется только, что
+     * вещи, видимые до начала обхода, не пропускаются и не повторяются.
+     */
+    List<Item> getAllItemsByUser(Long userId, long after, int size);
+
+    List<Item> searchItemsByDescription(String text, long after, int size);
+
+    List<Item> searchItemsRanked(String text, int limit);
+
+    Map<Long, List<Item>> getItemsByRequestIds(Collection<Long> requestIds);
+
+    void markOwnerRemoved(long ownerId);
 
-    List<Item> getAllItemsByUser(Long userId);
+    boolean isOwnerRemoved(long ownerId);
 
-    List<Item> searchItemsByDescription(String text);
+    List<Long> removeItemsOfOwner(long ownerId, int batchSize);
 }
\ No newline at end of file
@@ -2,117 +2,281 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.etag.VersionTag;
+import ru.practicum.shareit.event.DomainEventBus;
 import ru.practicum.shareit.exception.IncorrectRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.JournalRecord;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Repository
+@Profile("!db")
 public class ItemRepositoryImpl implements ItemRepository {
 
-    private final Map<Long, List<Item>> items = new HashMap<>();
-    private final UserService userService;
+    private final ItemStore items;
+    private final Map<Long, NavigableSet<Long>> itemIdsByOwner = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> itemIdsByRequest = new ConcurrentHashMap<>();
+    private final Set<Long> removedOwnerIds = ConcurrentHashMap.newKeySet();
+    private final ItemSearch itemSearch;
     private GeneratorItemId generatorItemId;
+    private final Journal journal;
+    private final ItemSearchCache searchCache;
+    private final DomainEventBus eventBus;
 
     @Autowired
-    public ItemRepositoryImpl(UserService userService, GeneratorItemId generatorItemId) {
-        this.userService = userService;
+    public ItemRepositoryImpl(ItemStore items, GeneratorItemId generatorItemId, Journal journal,
+                              ItemSearchCache searchCache, DomainEventBus eventBus,
+                              @Value("${shareit.storage.item-search-index:true}") boolean searchIndexEnabled) {
+        this.items = items;
+        itemSearch = searchIndexEnabled ? new ItemSearchIndex() : new ItemStoreScan(items);
         this.generatorItemId = generatorItemId;
+        this.journal = journal;
+        this.searchCache = searchCache;
+        this.eventBus = eventBus;
     }
 
     @Override
     public Item createItem(Item item, Long userId) {
-        checkUserId(userId);
-        if (item.getAvailable() == null || item.getDescription() == null || item.getName() == null ||
-                item.getName().isBlank()) {
-            throw new IncorrectRequestException("У предмета не указан статус");
-        }
-        item.setId(generatorItemId.generate());
-        item.setOwnerId(userId);
-        if (!items.containsKey(userId)) {
-            List<Item> newItemsOfUser = new ArrayList<>();
-            newItemsOfUser.add(item);
-            items.put(userId, newItemsOfUser);
-            return item;
+        checkItem(item);
+        checkOwner(userId);
+        Item newItem;
+        try (Journal.Entry entry = journal.begin()) {
+            newItem = item.withId(generatorItemId.generate()).withOwnerId(userId).withVersion(1);
+            entry.append(JournalRecord.itemSaved(newItem));
+            put(newItem);
         }
-        List<Item> itemsOfUser = items.get(userId);
-        itemsOfUser.add(item);
-        items.put(userId, itemsOfUser);
-        log.debug("Пользователь с id {} добавил вещь {}", userId, item.getName());
-        return item;
+        eventBus.publish(new ItemCreatedEvent(newItem));
+        return newItem;
     }
 
     @Override
-    public Item updateItem(Item item, Long userId, Long itemId) {
-        checkUserId(userId);
-        Item oldItem = getItemById(itemId);
-        if (oldItem.getOwnerId() != userId) {
-            log.warn("Пользователь с id {} не может изменять вещь с id {}", userId, itemId);
-            throw new NotFoundException("Пользователю недоступно редактирование вещи с id" + itemId);
-        }
-        if (item.getName() != null) {
-            oldItem.setName(item.getName());
+    public List<BatchResult<Item>> createItems(List<Item> newItems, long userId) {
+        checkOwner(userId);
+        List<BatchResult<Item>> results = new ArrayList<>(newItems.size());
+        List<Integer> accepted = new ArrayList<>(newItems.size());
+        for (Item item : newItems) {
+            try {
+                checkItem(item);
+                accepted.add(results.size());
+                results.add(null);
+            } catch (IncorrectRequestException e) {
+                results.add(BatchResult.failed(e));
+            }
         }
-        if (item.getDescription() != null) {
-            oldItem.setDescription(item.getDescription());
+        try (Journal.Entry entry = journal.begin()) {
+            long id = generatorItemId.reserve(accepted.size());
+            for (int position : accepted) {
+                Item item = newItems.get(position).withId(id++).withOwnerId(userId).withVersion(1);
+                entry.append(JournalRecord.itemSaved(item));
+                put(item);
+                results.set(position, BatchResult.created(item));
+            }
         }
-        if (item.getAvailable() != null) {
-            oldItem.setAvailable(item.getAvailable());
+        for (int position : accepted) {
+            eventBus.publish(new ItemCreatedEvent(results.get(position).getValue()));
         }
-        log.info("Вещь с id {} обновлена", itemId);
-        return oldItem;
+        return results;
     }
 
+    /**
+     * Новая версия вещи собирается из прочитанной и ставится сравнением с заменой без блокировок; если вещь
+     * успели изменить, попытка повторяется с новым прочтением, поэтому параллельные изменения разных полей
+     * не теряются. Индекс и восстановление из журнала применяют только более новую версию, так что порядок,
+     * в котором параллельные изменения доходят до них после замены, не важен. Если вещь удалили вместе
+     * с владельцем между заменой и индексацией, документ снимается с индекса повторно, а при восстановлении
+     * запись об изменении после удаления игнорируется.
+     */
     @Override
-    public Item getItemById(Long itemId) {
-        List<Item> itemsOfUser = getAllItems();
-        for (Item item : itemsOfUser) {
-            if (item.getId() == itemId) {
-                log.info("Получена вещь с id {}.", itemId);
-                return item;
+    public Item updateItem(Item item, Long userId, Long itemId) {
+        Item oldItem;
+        Item newItem;
+        try (Journal.Entry entry = journal.begin()) {
+            do {
+                oldItem = items.get(itemId);
+                if (oldItem == null || oldItem.getOwnerId() != userId) {
+                    log.debug("Пользователь с id {} не может изменять вещь с id {}", userId, itemId);
+                    throw new NotFoundException("Пользователю недоступно редактирование вещи с id" + itemId);
+                }
+                if (item.getVersion() != VersionTag.ANY_VERSION && item.getVersion() != oldItem.getVersion()) {
+                    throw new PreconditionFailedException("Вещь с id " + itemId + " уже изменена, текущая версия "
+                            + oldItem.getVersion());
+                }
+                newItem = oldItem
+                        .withName(item.getName() != null ? item.getName() : oldItem.getName())
+                        .withDescription(item.getDescription() != null ? item.getDescription()
+                                : oldItem.getDescription())
+                        .withAvailable(item.getAvailable() != null ? item.getAvailable() : oldItem.getAvailable())
+                        .withVersion(oldItem.getVersion() + 1);
+            } while (!items.replace(oldItem, newItem));
+            itemSearch.index(newItem);
+            if (items.get(itemId) == null) {
+                itemSearch.remove(itemId);
             }
+            entry.append(JournalRecord.itemSaved(newItem));
+        }
+        eventBus.publish(new ItemUpdatedEvent(oldItem, newItem));
+        return newItem;
+    }
+
+    @Override
+    public Optional<Item> findItemById(Long itemId) {
+        Item item = items.get(itemId);
+        if (item == null || removedOwnerIds.contains(item.getOwnerId())) {
+            return Optional.empty();
         }
-        return null;
+        return Optional.of(item);
     }
 
     @Override
-    public List<Item> getAllItemsByUser(Long userId) {
-        checkUserId(userId);
-        List<Item> itemsOfUser = items.get(userId);
-        log.info("Получен список вещений пользователя с id {}", userId);
+    public List<Item> getAllItemsByUser(Long userId, long after, int size) {
+        NavigableSet<Long> itemIds = itemIdsByOwner.get(userId);
+        if (itemIds == null || removedOwnerIds.contains(userId)) {
+            return Collections.emptyList();
+        }
+        List<Item> itemsOfUser = itemIds.tailSet(after, false).stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .limit(size)
+                .collect(Collectors.toList());
+        log.debug("Получен список вещей пользователя с id {}", userId);
         return itemsOfUser;
     }
 
     @Override
-    public List<Item> searchItemsByDescription(String text) {
+    public List<Item> searchItemsByDescription(String text, long after, int size) {
         List<Item> matchItem = new ArrayList<>();
         if (!text.isBlank()) {
-            log.info("Получены вещи, актульные для запроса {}", text);
-            matchItem = getAllItems().stream()
-                    .filter(item -> item.getAvailable().equals(Boolean.TRUE)
-                            && (item.getName().toLowerCase().contains(text.toLowerCase())
-                            || item.getDescription().toLowerCase().contains(text.toLowerCase())))
+            log.debug("Получены вещи, актуальные для запроса {}", text);
+            matchItem = searchCache.get(text, after, size, query -> itemSearch.search(query, after, size)).stream()
+                    .map(items::get)
+                    .filter(item -> item != null && !removedOwnerIds.contains(item.getOwnerId()))
                     .collect(Collectors.toList());
         }
         return matchItem;
     }
 
-    private List<Item> getAllItems() {
-        List<Item> allItems = new ArrayList<>();
-        items.values()
-                .forEach(i -> allItems.addAll(i));
-        return allItems;
+    @Override
+    public List<Item> searchItemsRanked(String text, int limit) {
+        log.debug("Получены {} наиболее релевантных вещей для запроса {}", limit, text);
+        return itemSearch.searchRanked(text, limit).stream()
+                .map(items::get)
+                .filter(item -> item != null && !removedOwnerIds.contains(item.getOwnerId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<Long, List<Item>> getItemsByRequestIds(Collection<Long> requestIds) {
+        Map<Long, List<Item>> itemsByRequest = new HashMap<>();
+        for (Long requestId : requestIds) {
+            NavigableSet<Long> itemIds = itemIdsByRequest.get(requestId);
+            if (itemIds != null) {
+                itemsByRequest.put(requestId, itemIds.stream()
+                        .map(items::get)
+                        .filter(item -> item != null && !removedOwnerIds.contains(item.getOwnerId()))
+                        .collect(Collectors.toList()));
+            }
+        }
+        return itemsByRequest;
+    }
+
+    @Override
+    public void markOwnerRemoved(long ownerId) {
+        removedOwnerIds.add(ownerId);
+    }
+
+    @Override
+    public boolean isOwnerRemoved(long ownerId) {
+        return removedOwnerIds.contains(ownerId);
+    }
+
+    @Override
+    public List<Long> removeItemsOfOwner(long ownerId, int batchSize) {
+        NavigableSet<Long> itemIds = itemIdsByOwner.get(ownerId);
+        if (itemIds == null) {
+            removedOwnerIds.remove(ownerId);
+            return Collections.emptyList();
+        }
+        List<Long> removedIds = new ArrayList<>();
+        List<Item> removedItems = new ArrayList<>();
+        try (Journal.Entry entry = journal.begin()) {
+            Long itemId;
+            while (removedIds.size() < batchSize && (itemId = itemIds.pollFirst()) != null) {
+                Item item = items.remove(itemId);
+                if (item == null) {
+                    continue;
+                }
+                itemSearch.remove(itemId);
+                if (item.getRequestId() != null) {
+                    NavigableSet<Long> answerIds = itemIdsByRequest.get(item.getRequestId());
+                    if (answerIds != null) {
+                        answerIds.remove(itemId);
+                    }
+                }
+                entry.append(JournalRecord.itemDeleted(itemId));
+                removedIds.add(itemId);
+                removedItems.add(item);
+            }
+        }
+        if (removedIds.isEmpty()) {
+            itemIdsByOwner.remove(ownerId, itemIds);
+            removedOwnerIds.remove(ownerId);
+        } else {
+            searchCache.invalidate(removedItems);
+        }
+        log.debug("Удалено {} вещей пользователя с id {}", removedIds.size(), ownerId);
+        return removedIds;
+    }
+
+    public void restore(Collection<Item> restoredItems) {
+        restoredItems.parallelStream().forEach(this::put);
+    }
+
+    public void forEachItem(Consumer<Item> action) {
+        items.forEach(action);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public void forEachInventorySize(IntConsumer action) {
+        itemIdsByOwner.values().forEach(itemIds -> action.accept(itemIds.size()));
+    }
+
+    private void checkOwner(long userId) {
+        if (removedOwnerIds.contains(userId)) {
+            throw new NotFoundException("Пользователь не существует");
+        }
+    }
+
+    private static void checkItem(Item item) {
+        if (item.getAvailable() == null || item.getDescription() == null || item.getName() == null ||
+                item.getName().isBlank()) {
+            throw new IncorrectRequestException("У предмета не указан статус");
+        }
     }
 
-    private void checkUserId(long userId) {
-        if (userService.getUserById(userId) == null) {
-            log.error("Пользователя с id {} не существует", userId);
-            throw new NotFoundException("Пользователя не существует");
+    private void put(Item item) {
+        itemSearch.index(item);
+        items.put(item);
+        itemIdsByOwner.computeIfAbsent(item.getOwnerId(), id -> new ConcurrentSkipListSet<>()).add(item.getId());
+        if (item.getRequestId() != null) {
+            itemIdsByRequest.computeIfAbsent(item.getRequestId(), id -> new ConcurrentSkipListSet<>())
+                    .add(item.getId());
         }
     }
-}
\ No newline at end of file
+}
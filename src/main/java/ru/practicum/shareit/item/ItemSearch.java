@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Текстовый поиск вещей для {@link ItemRepositoryImpl}. Свойство {@code shareit.storage.item-search-index}
+ * выбирает триграммный индекс {@link ItemSearchIndex} или просмотр хранилища {@link ItemStoreScan}.
+ */
+interface ItemSearch {
+
+    void index(Item item);
+
+    void remove(long itemId);
+
+    /**
+     * Id доступных вещей, в названии или описании которых есть текст, по возрастанию после {@code after}.
+     */
+    List<Long> search(String text, long after, int size);
+
+    /**
+     * Id не более {@code limit} доступных вещей по убыванию релевантности BM25F.
+     */
+    List<Long> searchRanked(String text, int limit);
+}
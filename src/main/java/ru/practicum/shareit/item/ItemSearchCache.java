@@ -0,0 +1,178 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.event.DomainEventBus;
+import ru.practicum.shareit.event.DomainEventHandler;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Кэш страниц поиска: id найденных вещей по тексту запроса, приведенному к нижнему регистру, и параметрам
+ * страницы. Изменение вещи сбрасывает только запросы, текст которых входит в старые или новые название
+ * или описание; сброс идет пачками в потоке шины событий, а пока он отстает от записей, поиск идет мимо кэша.
+ * Результат поиска, во время которого изменилась какая-либо вещь, в кэше не остается.
+ */
+@Component
+@Profile("!db")
+public class ItemSearchCache implements MeterBinder, DomainEventHandler {
+
+    private static final int BULK_INVALIDATION = 100;
+
+    private final Cache<Query, List<Long>> cache;
+    private final AtomicLong changes = new AtomicLong();
+    private final DomainEventBus eventBus;
+    private volatile DomainEventBus.Subscription subscription;
+
+    @Autowired
+    public ItemSearchCache(@Value("${shareit.search-cache.maximum-size:10000}") long maximumSize,
+                           DomainEventBus eventBus) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.eventBus = eventBus;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        subscription = eventBus.subscribe("item-search-cache", this);
+    }
+
+    @PreDestroy
+    public void unsubscribe() throws InterruptedException {
+        subscription.cancel();
+    }
+
+    List<Long> get(String text, long after, int size, Function<String, List<Long>> search) {
+        Query query = new Query(normalize(text), after, size);
+        if (!subscription.isCaughtUp()) {
+            return search.apply(query.text);
+        }
+        List<Long> itemIds = cache.getIfPresent(query);
+        if (itemIds != null) {
+            return itemIds;
+        }
+        long seenChanges = changes();
+        itemIds = Collections.unmodifiableList(search.apply(query.text));
+        cache.put(query, itemIds);
+        if (changes() != seenChanges) {
+            cache.invalidate(query);
+        }
+        return itemIds;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        List<Item> changedItems = new ArrayList<>();
+        for (DomainEvent event : events) {
+            if (event instanceof ItemCreatedEvent) {
+                changedItems.add(((ItemCreatedEvent) event).getItem());
+            } else if (event instanceof ItemUpdatedEvent) {
+                changedItems.add(((ItemUpdatedEvent) event).getOldItem());
+                changedItems.add(((ItemUpdatedEvent) event).getNewItem());
+            }
+        }
+        if (!changedItems.isEmpty()) {
+            invalidate(changedItems);
+        }
+    }
+
+    @Override
+    public void onOverflow() {
+        invalidateAll();
+    }
+
+    void invalidate(Collection<Item> changedItems) {
+        changes.incrementAndGet();
+        if (changedItems.size() > BULK_INVALIDATION) {
+            cache.invalidateAll();
+            return;
+        }
+        String[] texts = changedItems.stream()
+                .flatMap(item -> Stream.of(item.getName(), item.getDescription()))
+                .map(String::toLowerCase)
+                .toArray(String[]::new);
+        cache.asMap().keySet().removeIf(query -> {
+            for (String text : texts) {
+                if (text.contains(query.text)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    void invalidateAll() {
+        changes.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "item-search");
+        Gauge.builder("shareit.search.cache.hit-rate", cache, c -> c.stats().hitRate())
+                .description("Доля поисковых запросов, обслуженных из кэша")
+                .register(registry);
+    }
+
+    private long changes() {
+        return changes.get() + eventBus.published();
+    }
+
+    /**
+     * Пробелы по краям отбрасывает сервис до обращения к репозиторию, поэтому ключ только приводится
+     * к нижнему регистру.
+     */
+    private static String normalize(String text) {
+        return text.toLowerCase();
+    }
+
+    private static final class Query {
+        private final String text;
+        private final long after;
+        private final int size;
+
+        private Query(String text, long after, int size) {
+            this.text = text;
+            this.after = after;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Query)) {
+                return false;
+            }
+            Query query = (Query) o;
+            return after == query.after && size == query.size && text.equals(query.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, after, size);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Инвертированный индекс триграмм по названию и описанию вещей.
+ * Каждое поле дополняется в конце символами-заполнителями, поэтому любая подстрока длиной до трёх символов
+ * является префиксом одной из триграмм, а более длинная подстрока содержит все свои триграммы.
+ * Изменения одной вещи сериализуются через её запись в {@code documents}, поиск идёт без блокировок;
+ * запоздавшая более старая версия вещи индекс не откатывает.
+ * Опустевшие списки вхождений не удаляются, чтобы не потерять параллельную вставку в них.
+ * Ранжированный поиск считает BM25F по словам запроса: совпадение в названии весит больше, чем в описании,
+ * а лучшие K вещей отбираются ограниченной кучей за O(совпадений · log K).
+ */
+class ItemSearchIndex implements ItemSearch {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final char PADDING = '\0';
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3;
+    private static final double DESCRIPTION_WEIGHT = 1;
+    private static final Comparator<Map.Entry<Long, Double>> WORST_FIRST = Map.Entry.<Long, Double>comparingByValue()
+            .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+
+    private final ConcurrentNavigableMap<String, NavigableSet<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Set<Long> availableIds = ConcurrentHashMap.newKeySet();
+    private final LongAdder nameLength = new LongAdder();
+    private final LongAdder descriptionLength = new LongAdder();
+
+    @Override
+    public void index(Item item) {
+        Document document = new Document(item.getName().toLowerCase(), item.getDescription().toLowerCase(),
+                item.getVersion());
+        documents.compute(item.getId(), (id, oldDocument) -> {
+            if (oldDocument != null && oldDocument.version > document.version) {
+                return oldDocument;
+            }
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                availableIds.add(id);
+            } else {
+                availableIds.remove(id);
+            }
+            if (!document.equals(oldDocument)) {
+                updatePostings(id, oldDocument, document);
+                if (oldDocument != null) {
+                    addLengths(oldDocument, -1);
+                }
+                addLengths(document, 1);
+            }
+            return document;
+        });
+    }
+
+    @Override
+    public void remove(long itemId) {
+        documents.computeIfPresent(itemId, (id, document) -> {
+            availableIds.remove(id);
+            document.grams().forEach(gram -> removePosting(gram, id));
+            addLengths(document, -1);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Long> search(String text, long after, int size) {
+        String query = text.toLowerCase();
+        Iterator<Long> candidates = candidates(query, after);
+        List<Long> found = new ArrayList<>();
+        while (found.size() < size && candidates.hasNext()) {
+            Long itemId = candidates.next();
+            Document document = documents.get(itemId);
+            if (document != null && availableIds.contains(itemId) && document.contains(query)) {
+                found.add(itemId);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Вещь находится, если содержит хотя бы одно слово запроса; частота слова в поле нормируется
+     * на длину поля относительно средней, редкие слова весят больше частых.
+     */
+    @Override
+    public List<Long> searchRanked(String text, int limit) {
+        List<String> terms = terms(text);
+        int documentCount = documents.size();
+        if (terms.isEmpty() || documentCount == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        double averageName = Math.max(nameLength.sum() / (double) documentCount, 1);
+        double averageDescription = Math.max(descriptionLength.sum() / (double) documentCount, 1);
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Double> frequencies = new HashMap<>();
+            Iterator<Long> candidates = term.length() < GRAM_LENGTH
+                    ? prefixCandidates(term, 0)
+                    : rarestGram(term).iterator();
+            while (candidates.hasNext()) {
+                Long itemId = candidates.next();
+                Document document = documents.get(itemId);
+                if (document == null || !availableIds.contains(itemId)) {
+                    continue;
+                }
+                double frequency = frequency(occurrences(document.name, term), document.name.length(), averageName,
+                        occurrences(document.description, term), document.description.length(),
+                        averageDescription);
+                if (frequency > 0) {
+                    frequencies.put(itemId, frequency);
+                }
+            }
+            addScores(scores, frequencies, documentCount);
+        }
+        return top(scores, limit);
+    }
+
+    /**
+     * Слова запроса в нижнем регистре без повторов.
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String term : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty() && !terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Взвешенная частота слова в вещи: число вхождений в поле, нормированное на длину поля относительно средней.
+     */
+    static double frequency(int nameOccurrences, int nameLength, double averageName,
+                            int descriptionOccurrences, int descriptionLength, double averageDescription) {
+        return NAME_WEIGHT * nameOccurrences / normalization(nameLength, averageName)
+                + DESCRIPTION_WEIGHT * descriptionOccurrences / normalization(descriptionLength, averageDescription);
+    }
+
+    /**
+     * Добавляет к оценкам вклад одного слова по частотам вещей, в которых оно встретилось.
+     */
+    static void addScores(Map<Long, Double> scores, Map<Long, Double> frequencies, int documentCount) {
+        double idf = Math.log(1 + (documentCount - frequencies.size() + 0.5) / (frequencies.size() + 0.5));
+        frequencies.forEach((itemId, frequency) ->
+                scores.merge(itemId, idf * frequency / (K1 + frequency), Double::sum));
+    }
+
+    /**
+     * Лучшие {@code limit} вещей по убыванию оценки, при равенстве - по возрастанию id.
+     */
+    static List<Long> top(Map<Long, Double> scores, int limit) {
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Math.min(limit, scores.size()) + 1,
+                WORST_FIRST);
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            if (top.size() < limit) {
+                top.add(score);
+            } else if (WORST_FIRST.compare(score, top.peek()) > 0) {
+                top.poll();
+                top.add(score);
+            }
+        }
+        Long[] ranked = new Long[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = top.poll().getKey();
+        }
+        return Arrays.asList(ranked);
+    }
+
+    private Iterator<Long> candidates(String query, long after) {
+        return query.length() < GRAM_LENGTH
+                ? prefixCandidates(query, after)
+                : gramCandidates(query, after);
+    }
+
+    private static int occurrences(String field, String term) {
+        int count = 0;
+        for (int from = field.indexOf(term); from >= 0; from = field.indexOf(term, from + term.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static double normalization(int length, double averageLength) {
+        return 1 - B + B * length / averageLength;
+    }
+
+    private void addLengths(Document document, int sign) {
+        nameLength.add(sign * (long) document.name.length());
+        descriptionLength.add(sign * (long) document.description.length());
+    }
+
+    private void updatePostings(long itemId, Document oldDocument, Document document) {
+        Set<String> newGrams = document.grams();
+        Set<String> oldGrams = oldDocument == null ? Collections.emptySet() : oldDocument.grams();
+        for (String gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                removePosting(gram, itemId);
+            }
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, g -> new ConcurrentSkipListSet<>()).add(itemId);
+            }
+        }
+    }
+
+    private Iterator<Long> prefixCandidates(String query, long after) {
+        List<Iterator<Long>> iterators = new ArrayList<>();
+        postings.subMap(query, true, query + Character.MAX_VALUE, true)
+                .values()
+                .forEach(posting -> iterators.add(posting.tailSet(after, false).iterator()));
+        return new MergingIterator(iterators);
+    }
+
+    /**
+     * Для ранжирования пересечение списков не нужно: вхождение слова всё равно проверяется подсчетом.
+     */
+    private NavigableSet<Long> rarestGram(String term) {
+        NavigableSet<Long> rarest = Collections.emptyNavigableSet();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            NavigableSet<Long> posting = postings.get(term.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return Collections.emptyNavigableSet();
+            }
+            if (i == 0 || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        return rarest;
+    }
+
+    private Iterator<Long> gramCandidates(String query, long after) {
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            NavigableSet<Long> posting = postings.get(query.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return Collections.emptyIterator();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<NavigableSet<Long>> others = lists.subList(1, lists.size());
+        return lists.get(0).tailSet(after, false).stream()
+                .filter(itemId -> others.stream().allMatch(posting -> posting.contains(itemId)))
+                .iterator();
+    }
+
+    private void removePosting(String gram, long itemId) {
+        NavigableSet<Long> posting = postings.get(gram);
+        if (posting != null) {
+            posting.remove(itemId);
+        }
+    }
+
+    /**
+     * Слияние возрастающих последовательностей id без повторов.
+     */
+    private static final class MergingIterator implements Iterator<Long> {
+        private final PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingLong(c -> c.head));
+
+        private MergingIterator(List<Iterator<Long>> iterators) {
+            iterators.forEach(this::advance);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public Long next() {
+            if (cursors.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            long next = cursors.peek().head;
+            while (!cursors.isEmpty() && cursors.peek().head == next) {
+                advance(cursors.poll().iterator);
+            }
+            return next;
+        }
+
+        private void advance(Iterator<Long> iterator) {
+            if (iterator.hasNext()) {
+                cursors.add(new Cursor(iterator.next(), iterator));
+            }
+        }
+
+        private static final class Cursor {
+            private final long head;
+            private final Iterator<Long> iterator;
+
+            private Cursor(long head, Iterator<Long> iterator) {
+                this.head = head;
+                this.iterator = iterator;
+            }
+        }
+    }
+
+    private static final class Document {
+        private final String name;
+        private final String description;
+        private final long version;
+
+        private Document(String name, String description, long version) {
+            this.name = name;
+            this.description = description;
+            this.version = version;
+        }
+
+        private boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            addGrams(name, grams);
+            addGrams(description, grams);
+            return grams;
+        }
+
+        private static void addGrams(String field, Set<String> grams) {
+            StringBuilder padded = new StringBuilder(field);
+            for (int i = 1; i < GRAM_LENGTH; i++) {
+                padded.append(PADDING);
+            }
+            for (int i = 0; i < field.length(); i++) {
+                grams.add(padded.substring(i, i + GRAM_LENGTH));
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Document)) {
+                return false;
+            }
+            Document document = (Document) o;
+            return name.equals(document.name) && description.equals(document.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, description);
+        }
+    }
+}
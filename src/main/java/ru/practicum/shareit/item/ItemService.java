@@ -1,17 +1,23 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.batch.BatchResult;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.UserPrincipal;
 
 import java.util.List;
 
 public interface ItemService {
-    Item createItem(Item item, Long userId);
+    Item createItem(Item item, UserPrincipal owner);
 
-    Item updateItem(Item item, Long userId, Long itemId);
+    List<BatchResult<Item>> createItems(List<Item> items, UserPrincipal owner);
+
+    Item updateItem(Item item, UserPrincipal owner, Long itemId);
 
     Item getItemById(Long itemId);
 
-    List<Item> getAllItemsByUser(Long userId);
+    List<Item> getAllItemsByUser(UserPrincipal owner, long after, int size);
+
+    List<Item> searchItemsByDescription(String text, long after, int size);
 
-    List<Item> searchItemsByDescription(String text);
+    List<Item> searchItemsRanked(String text, int limit);
 }
\ No newline at end of file
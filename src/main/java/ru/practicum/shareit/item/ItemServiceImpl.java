@@ -1,43 +1,159 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.user.model.UserPrincipal;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+@Slf4j
 @Service
 public class ItemServiceImpl implements ItemService {
 
+    private static final int REMOVAL_BATCH_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_SEARCH_LIMIT = 1000;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final ItemRepository itemRepository;
+    private final ItemCache itemCache;
+    private final ItemRequestRepository itemRequestRepository;
+    private final TaskExecutor taskExecutor;
+    private final DistributionSummary searchResults;
 
     @Autowired
-    public ItemServiceImpl(ItemRepository itemRepository) {
+    public ItemServiceImpl(ItemRepository itemRepository, ItemCache itemCache,
+                           ItemRequestRepository itemRequestRepository, TaskExecutor taskExecutor,
+                           MeterRegistry meterRegistry) {
         this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+        this.itemRequestRepository = itemRequestRepository;
+        this.taskExecutor = taskExecutor;
+        searchResults = DistributionSummary.builder("shareit.search.results")
+                .description("Число вещей в ответе на поисковый запрос")
+                .register(meterRegistry);
     }
 
     @Override
-    public Item createItem(Item item, Long userId) {
-        return itemRepository.createItem(item, userId);
+    public Item createItem(Item item, UserPrincipal owner) {
+        checkRequest(item);
+        return itemRepository.createItem(item, owner.getId());
     }
 
     @Override
-    public Item updateItem(Item item, Long userId, Long itemId) {
-        return itemRepository.updateItem(item, userId, itemId);
+    public List<BatchResult<Item>> createItems(List<Item> items, UserPrincipal owner) {
+        checkBatch(items.size());
+        List<BatchResult<Item>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        List<Item> accepted = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            try {
+                checkRequest(item);
+                accepted.add(item);
+                positions.add(i);
+            } catch (NotFoundException e) {
+                results.set(i, BatchResult.failed(e));
+            }
+        }
+        List<BatchResult<Item>> created = itemRepository.createItems(accepted, owner.getId());
+        for (int i = 0; i < created.size(); i++) {
+            results.set(positions.get(i), created.get(i));
+        }
+        return results;
+    }
+
+    @Override
+    public Item updateItem(Item item, UserPrincipal owner, Long itemId) {
+        Item updatedItem = itemRepository.updateItem(item, owner.getId(), itemId);
+        itemCache.evict(itemId);
+        return updatedItem;
     }
 
     @Override
     public Item getItemById(Long itemId) {
-        return itemRepository.getItemById(itemId);
+        Item item = itemCache.get(itemId, id -> itemRepository.findItemById(id).orElse(null));
+        if (item == null || itemRepository.isOwnerRemoved(item.getOwnerId())) {
+            throw new NotFoundException("Вещь не существует");
+        }
+        return item;
     }
 
     @Override
-    public List<Item> getAllItemsByUser(Long userId) {
-        return itemRepository.getAllItemsByUser(userId);
+    public List<Item> getAllItemsByUser(UserPrincipal owner, long after, int size) {
+        checkPage(after, size);
+        return itemRepository.getAllItemsByUser(owner.getId(), after, size);
     }
 
     @Override
-    public List<Item> searchItemsByDescription(String text) {
-        return itemRepository.searchItemsByDescription(text);
+    public List<Item> searchItemsByDescription(String text, long after, int size) {
+        checkPage(after, size);
+        List<Item> items = itemRepository.searchItemsByDescription(text.strip(), after, size);
+        searchResults.record(items.size());
+        return items;
+    }
+
+    @Override
+    public List<Item> searchItemsRanked(String text, int limit) {
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IncorrectRequestException("Лимит поиска должен быть от 1 до " + MAX_SEARCH_LIMIT);
+        }
+        List<Item> items = itemRepository.searchItemsRanked(text.strip(), limit);
+        searchResults.record(items.size());
+        return items;
+    }
+
+    /**
+     * Вещи удаленного пользователя сразу перестают быть видны, а удаляются пачками: первая пачка
+     * в потоке запроса, остальные, если инвентарь большой, в фоне.
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        long ownerId = event.getUserId();
+        itemRepository.markOwnerRemoved(ownerId);
+        if (removeBatch(ownerId)) {
+            taskExecutor.execute(() -> {
+                while (removeBatch(ownerId)) {
+                    log.debug("Продолжается удаление вещей пользователя с id {}", ownerId);
+                }
+            });
+        }
+    }
+
+    private boolean removeBatch(long ownerId) {
+        List<Long> removedIds = itemRepository.removeItemsOfOwner(ownerId, REMOVAL_BATCH_SIZE);
+        itemCache.evictAll(removedIds);
+        return removedIds.size() == REMOVAL_BATCH_SIZE;
+    }
+
+    private void checkRequest(Item item) {
+        if (item.getRequestId() != null && itemRequestRepository.findRequestById(item.getRequestId()).isEmpty()) {
+            throw new NotFoundException("Запрос не существует");
+        }
+    }
+
+    private static void checkBatch(int size) {
+        if (size == 0 || size > MAX_BATCH_SIZE) {
+            throw new IncorrectRequestException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " вещей");
+        }
+    }
+
+    private static void checkPage(long after, int size) {
+        if (after < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IncorrectRequestException("Некорректные параметры страницы: размер от 1 до " + MAX_PAGE_SIZE);
+        }
     }
 }
\ No newline at end of file
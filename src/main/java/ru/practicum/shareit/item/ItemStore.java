@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.function.Consumer;
+
+/**
+ * Хранилище вещей по id для {@link ItemRepositoryImpl}. Раскладка в памяти выбирается свойством
+ * {@code shareit.storage.item-layout}: объекты в хэш-таблице или колонки примитивных массивов.
+ */
+public interface ItemStore {
+
+    Item get(long itemId);
+
+    void put(Item item);
+
+    /**
+     * Сравнение с заменой: ставит {@code newItem}, только если текущая версия вещи равна версии {@code expected}.
+     */
+    boolean replace(Item expected, Item newItem);
+
+    Item remove(long itemId);
+
+    void forEach(Consumer<Item> action);
+
+    int size();
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Поиск просмотром хранилища без отдельного индекса. Название и описание читаются из самих вещей,
+ * поэтому поиск не держит в памяти ни их копий, ни списков вхождений триграмм, зато каждый запрос проходит
+ * по всем вещам. Подходит колоночной раскладке, когда память важнее скорости поиска.
+ * Регистр сравнивается посимвольно, без создания строк в нижнем регистре.
+ */
+class ItemStoreScan implements ItemSearch {
+
+    private final ItemStore items;
+
+    ItemStoreScan(ItemStore items) {
+        this.items = items;
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(long itemId) {
+    }
+
+    @Override
+    public List<Long> search(String text, long after, int size) {
+        String query = text.toLowerCase();
+        PriorityQueue<Long> nearest = new PriorityQueue<>(Comparator.reverseOrder());
+        items.forEach(item -> {
+            if (item.getId() <= after || !Boolean.TRUE.equals(item.getAvailable())
+                    || indexOf(item.getName(), query, 0) < 0 && indexOf(item.getDescription(), query, 0) < 0) {
+                return;
+            }
+            if (nearest.size() < size) {
+                nearest.add(item.getId());
+            } else if (item.getId() < nearest.peek()) {
+                nearest.poll();
+                nearest.add(item.getId());
+            }
+        });
+        List<Long> found = new ArrayList<>(nearest);
+        Collections.sort(found);
+        return found;
+    }
+
+    @Override
+    public List<Long> searchRanked(String text, int limit) {
+        List<String> terms = ItemSearchIndex.terms(text);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long[] totals = new long[3];
+        List<Item> candidates = new ArrayList<>();
+        items.forEach(item -> {
+            totals[0]++;
+            totals[1] += item.getName().length();
+            totals[2] += item.getDescription().length();
+            if (Boolean.TRUE.equals(item.getAvailable()) && containsAny(item, terms)) {
+                candidates.add(item);
+            }
+        });
+        int documentCount = (int) totals[0];
+        if (documentCount == 0) {
+            return Collections.emptyList();
+        }
+        double averageName = Math.max(totals[1] / (double) documentCount, 1);
+        double averageDescription = Math.max(totals[2] / (double) documentCount, 1);
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Double> frequencies = new HashMap<>();
+            for (Item item : candidates) {
+                double frequency = ItemSearchIndex.frequency(occurrences(item.getName(), term),
+                        item.getName().length(), averageName, occurrences(item.getDescription(), term),
+                        item.getDescription().length(), averageDescription);
+                if (frequency > 0) {
+                    frequencies.put(item.getId(), frequency);
+                }
+            }
+            ItemSearchIndex.addScores(scores, frequencies, documentCount);
+        }
+        return ItemSearchIndex.top(scores, limit);
+    }
+
+    private static boolean containsAny(Item item, List<String> terms) {
+        for (String term : terms) {
+            if (indexOf(item.getName(), term, 0) >= 0 || indexOf(item.getDescription(), term, 0) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int occurrences(String field, String term) {
+        int count = 0;
+        for (int from = indexOf(field, term, 0); from >= 0; from = indexOf(field, term, from + term.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int indexOf(String field, String lowerCaseTerm, int from) {
+        for (int i = from; i + lowerCaseTerm.length() <= field.length(); i++) {
+            if (field.regionMatches(true, i, lowerCaseTerm, 0, lowerCaseTerm.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
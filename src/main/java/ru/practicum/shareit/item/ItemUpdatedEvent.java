@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.item.model.Item;
+
+@Value
+public class ItemUpdatedEvent implements DomainEvent {
+
+    Item oldItem;
+    Item newItem;
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Component
+@Profile("!db")
+@ConditionalOnProperty(name = "shareit.storage.item-layout", havingValue = "objects", matchIfMissing = true)
+public class ObjectItemStore implements ItemStore {
+
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+
+    @Override
+    public Item get(long itemId) {
+        return items.get(itemId);
+    }
+
+    @Override
+    public void put(Item item) {
+        items.put(item.getId(), item);
+    }
+
+    @Override
+    public boolean replace(Item expected, Item newItem) {
+        return items.replace(expected.getId(), expected, newItem);
+    }
+
+    @Override
+    public Item remove(long itemId) {
+        return items.remove(itemId);
+    }
+
+    @Override
+    public void forEach(Consumer<Item> action) {
+        items.values().forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+}
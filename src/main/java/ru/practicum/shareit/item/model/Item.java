@@ -1,15 +1,29 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
+import lombok.With;
+import ru.practicum.shareit.etag.VersionTag;
 
-@Data
+/**
+ * Неизменяемый снимок вещи: хранилище заменяет его целиком, поэтому читатели не видят частичных изменений.
+ * Версия растет с каждым изменением; в переданном на изменение образце версия {@link VersionTag#ANY_VERSION}
+ * означает изменение без проверки версии.
+ */
+@Value
+@With
 @AllArgsConstructor
 public class Item {
 
-    private long id;
-    private String name;
-    private String description;
-    private Boolean available;
-    private long ownerId;
-}
\ No newline at end of file
+    long id;
+    String name;
+    String description;
+    Boolean available;
+    long ownerId;
+    Long requestId;
+    long version;
+
+    public Item(long id, String name, String description, Boolean available, long ownerId, Long requestId) {
+        this(id, name, description, available, ownerId, requestId, VersionTag.ANY_VERSION);
+    }
+}
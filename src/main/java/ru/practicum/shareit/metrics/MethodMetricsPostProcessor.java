@@ -0,0 +1,87 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Оборачивает сервисы и репозитории приложения таймером shareit.method с тегами layer, class и method.
+ * При shareit.metrics.sample-rate меньше единицы замеряется только соответствующая доля вызовов:
+ * перцентили остаются репрезентативными, а count таймера отражает выборку, а не все вызовы. Таймеров столько же,
+ * сколько методов, поэтому их гистограмма ограничена границами из
+ * management.metrics.distribution.slo.shareit.method, а не полным набором корзин.
+ */
+@Component
+public class MethodMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    private static final String APPLICATION_PACKAGE = "ru.practicum.shareit.";
+
+    @Autowired
+    public MethodMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                      @Value("${shareit.metrics.sample-rate:1.0}") double sampleRate) {
+        ClassFilter applicationClasses = clazz -> clazz.getName().startsWith(APPLICATION_PACKAGE);
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationClassFilter(Service.class, true))
+                .union(new AnnotationClassFilter(Repository.class, true))
+                .intersection(applicationClasses);
+        advisor = new DefaultPointcutAdvisor(pointcut, new TimingInterceptor(meterRegistry, sampleRate));
+        setProxyTargetClass(true);
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static class TimingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final double sampleRate;
+        private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+        TimingInterceptor(ObjectProvider<MeterRegistry> meterRegistry, double sampleRate) {
+            this.meterRegistry = meterRegistry;
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                return invocation.proceed();
+            }
+            Timer timer = timers.get(invocation.getMethod());
+            if (timer == null) {
+                timer = timers.computeIfAbsent(invocation.getMethod(), method -> register(invocation));
+            }
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private Timer register(MethodInvocation invocation) {
+            Class<?> targetClass = invocation.getThis().getClass();
+            String layer = targetClass.isAnnotationPresent(Repository.class) ? "repository" : "service";
+            return Timer.builder("shareit.method")
+                    .tag("layer", layer)
+                    .tag("class", targetClass.getSimpleName())
+                    .tag("method", invocation.getMethod().getName())
+                    .register(meterRegistry.getObject());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepositoryImpl;
+import ru.practicum.shareit.user.UserRepositoryImpl;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Размеры хранилищ в памяти: число пользователей и вещей и распределение владельцев по размеру
+ * инвентаря (shareit.store.owners с тегом items_le, накопительно, как бакеты гистограммы).
+ * Распределение пересчитывается обходом индекса владельцев не чаще раза в {@value #REFRESH_SECONDS} с.
+ */
+@Component
+@Profile("!db")
+public class StoreMetrics implements MeterBinder {
+
+    private static final long[] INVENTORY_BOUNDS = {1, 10, 100, 1000, 10_000, Long.MAX_VALUE};
+    private static final long REFRESH_SECONDS = 15;
+
+    private final UserRepositoryImpl userRepository;
+    private final ItemRepositoryImpl itemRepository;
+    private long[] ownersByInventory = new long[INVENTORY_BOUNDS.length];
+    private long refreshedAt = System.nanoTime() - TimeUnit.SECONDS.toNanos(REFRESH_SECONDS);
+
+    @Autowired
+    public StoreMetrics(UserRepositoryImpl userRepository, ItemRepositoryImpl itemRepository) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.store.users", userRepository, UserRepositoryImpl::size)
+                .description("Число пользователей в хранилище")
+                .register(registry);
+        Gauge.builder("shareit.store.items", itemRepository, ItemRepositoryImpl::size)
+                .description("Число вещей в хранилище")
+                .register(registry);
+        for (int i = 0; i < INVENTORY_BOUNDS.length; i++) {
+            int bucket = i;
+            String bound = INVENTORY_BOUNDS[i] == Long.MAX_VALUE ? "+Inf" : String.valueOf(INVENTORY_BOUNDS[i]);
+            Gauge.builder("shareit.store.owners", () -> ownersByInventory()[bucket])
+                    .description("Число владельцев, у которых не больше items_le вещей")
+                    .tag("items_le", bound)
+                    .register(registry);
+        }
+    }
+
+    private synchronized long[] ownersByInventory() {
+        if (System.nanoTime() - refreshedAt >= TimeUnit.SECONDS.toNanos(REFRESH_SECONDS)) {
+            long[] counts = new long[INVENTORY_BOUNDS.length];
+            itemRepository.forEachInventorySize(size -> {
+                int bucket = Arrays.binarySearch(INVENTORY_BOUNDS, size);
+                counts[bucket < 0 ? -bucket - 1 : bucket]++;
+            });
+            for (int i = 1; i < counts.length; i++) {
+                counts[i] += counts[i - 1];
+            }
+            ownersByInventory = counts;
+            refreshedAt = System.nanoTime();
+        }
+        return ownersByInventory;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Бюджеты запросов по эндпоинтам. Запрос проверяется первым подходящим правилом, запросы без правила
+ * не ограничиваются.
+ */
+@Data
+@ConfigurationProperties("shareit.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled;
+    private int maxKeys = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        private String method;
+        private String path;
+        private int capacity;
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.user.UserPrincipalArgumentResolver.USER_ID_IN_HEADER;
+
+/**
+ * Отдельная корзина на каждую пару «правило — клиент». Клиент определяется заголовком X-Sharer-User-Id,
+ * а без него адресом. Корзины, простоявшие полными дольше idle-timeout, удаляются в фоне; если клиентов
+ * правила больше max-keys, новые клиенты получают корзину по адресу, так что перебор заголовков не отнимает
+ * бюджет у других адресов. Корзин по адресу тоже не больше max-keys, сверх них остается одна общая корзина,
+ * так что память ограничена.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private final List<Budget> budgets;
+    private final int maxKeys;
+    private final long idleTimeout;
+    private final TaskExecutor taskExecutor;
+    private final AtomicLong nextEviction = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, TaskExecutor taskExecutor) {
+        this.maxKeys = properties.getMaxKeys();
+        this.idleTimeout = properties.getIdleTimeout().toNanos();
+        this.taskExecutor = taskExecutor;
+        budgets = properties.getRules().stream()
+                .map(rule -> new Budget(rule, meterRegistry))
+                .collect(Collectors.toList());
+        Gauge.builder("shareit.rate-limit.keys", this, RateLimiter::keys)
+                .description("Число отслеживаемых клиентов во всех правилах")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Возвращает 0, если запрос укладывается в бюджет, иначе время в наносекундах до следующей попытки.
+     */
+    public long acquire(HttpServletRequest request) {
+        Budget budget = findBudget(request);
+        if (budget == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        evictIdleIfDue(now);
+        String header = request.getHeader(USER_ID_IN_HEADER);
+        String address = request.getRemoteAddr();
+        long wait = budget.bucket(header != null ? header : address, address, now)
+                .tryAcquire(now, budget.interval, budget.burstTolerance);
+        if (wait > 0) {
+            budget.rejected.increment();
+        }
+        return wait;
+    }
+
+    private Budget findBudget(HttpServletRequest request) {
+        if (budgets.isEmpty()) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Budget budget : budgets) {
+            if ((budget.method == null || budget.method.equals(request.getMethod())) && budget.path.matches(path)) {
+                return budget;
+            }
+        }
+        return null;
+    }
+
+    private void evictIdleIfDue(long now) {
+        long due = nextEviction.get();
+        if (now - due >= 0 && nextEviction.compareAndSet(due, now + idleTimeout)) {
+            taskExecutor.execute(() -> {
+                long evictionTime = System.nanoTime();
+                for (Budget budget : budgets) {
+                    budget.buckets.values().removeIf(bucket -> bucket.isIdle(evictionTime, idleTimeout));
+                    budget.overflowBuckets.values().removeIf(bucket -> bucket.isIdle(evictionTime, idleTimeout));
+                }
+                log.debug("Удалены простаивающие корзины ограничения запросов, осталось {}", keys());
+            });
+        }
+    }
+
+    private double keys() {
+        return budgets.stream().mapToInt(budget -> budget.buckets.size() + budget.overflowBuckets.size()).sum();
+    }
+
+    private class Budget {
+
+        private final String method;
+        private final PathPattern path;
+        private final long interval;
+        private final long burstTolerance;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final Map<String, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+        private final TokenBucket overflow = new TokenBucket(System.nanoTime());
+        private final Counter rejected;
+
+        Budget(RateLimitProperties.Rule rule, MeterRegistry meterRegistry) {
+            if (rule.getPath() == null || rule.getCapacity() <= 0 || rule.getRefillPerSecond() <= 0) {
+                throw new IllegalStateException("Некорректное правило ограничения запросов: " + rule);
+            }
+            method = rule.getMethod();
+            path = PathPatternParser.defaultInstance.parse(rule.getPath());
+            interval = (long) (1_000_000_000L / rule.getRefillPerSecond());
+            burstTolerance = interval * rule.getCapacity();
+            rejected = Counter.builder("shareit.rate-limit.rejected")
+                    .description("Запросы, отклоненные ограничением частоты")
+                    .tag("endpoint", (method == null ? "" : method + " ") + rule.getPath())
+                    .register(meterRegistry);
+        }
+
+        TokenBucket bucket(String key, String address, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() < maxKeys) {
+                return buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+            }
+            bucket = overflowBuckets.get(address);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (overflowBuckets.size() < maxKeys) {
+                return overflowBuckets.computeIfAbsent(address, k -> new TokenBucket(now));
+            }
+            return overflow;
+        }
+    }
+}
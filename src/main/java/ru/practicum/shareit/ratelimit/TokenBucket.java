@@ -0,0 +1,38 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов в форме GCRA: вместо числа токенов хранится теоретическое время прихода следующего
+ * запроса, поэтому состояние помещается в один long и обновляется одним CAS. Корзина, у которой это
+ * время уже прошло, полна и ничем не отличается от новой.
+ */
+class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Возвращает 0, если токен взят, иначе время в наносекундах до появления токена.
+     */
+    long tryAcquire(long now, long interval, long burstTolerance) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long nextArrival = Math.max(arrival, now) + interval;
+            long wait = nextArrival - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isIdle(long now, long idleTimeout) {
+        return now - theoreticalArrival.get() > idleTimeout;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.requests;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class GeneratorItemRequestId {
+    private final AtomicLong id = new AtomicLong();
+
+    public long generate() {
+        return id.incrementAndGet();
+    }
+
+    public long current() {
+        return id.get();
+    }
+
+    public void advanceTo(long value) {
+        id.accumulateAndGet(value, Math::max);
+    }
+}
@@ -1,7 +0,0 @@
-package ru.practicum.shareit.requests;
-
-/**
- * // TODO .
- */
-public class ItemRequest {
-}
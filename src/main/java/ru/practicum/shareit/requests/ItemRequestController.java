@@ -1,12 +1,45 @@
 package ru.practicum.shareit.requests;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.NewItemRequestDto;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import java.util.List;
 
-/**
- * // TODO .
- */
 @RestController
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+
+    private final ItemRequestService service;
+
+    @Autowired
+    public ItemRequestController(ItemRequestService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public ItemRequestDto createRequest(@RequestBody NewItemRequestDto requestDto,
+                                        UserPrincipal requester) {
+        return service.createRequest(ItemRequestMapper.toItemRequest(requestDto, requester.getId()));
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getOwnRequests(UserPrincipal requester) {
+        return service.getOwnRequests(requester);
+    }
+
+    @GetMapping("/all")
+    public List<ItemRequestDto> getRequestsOfOthers(@RequestParam(defaultValue = "0") long after,
+                                                    @RequestParam(defaultValue = "20") int size,
+                                                    UserPrincipal user) {
+        return service.getRequestsOfOthers(user, after, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getRequestById(@PathVariable long requestId,
+                                         UserPrincipal user) {
+        return service.getRequestById(requestId);
+    }
 }
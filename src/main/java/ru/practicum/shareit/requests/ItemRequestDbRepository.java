@@ -0,0 +1,75 @@
+package ru.practicum.shareit.requests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.requests.model.ItemRequest;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Запросы хранятся в той же базе, что и вещи: ответы ссылаются на них через items.request_id,
+ * поэтому id запросов не должны повторяться после перезапуска.
+ */
+@Slf4j
+@Repository
+@Profile("db")
+public class ItemRequestDbRepository implements ItemRequestRepository {
+
+    private static final String SELECT_REQUESTS = "SELECT id, description, requester_id, created FROM requests ";
+    private static final RowMapper<ItemRequest> REQUEST_ROW_MAPPER = (rs, rowNum) ->
+            new ItemRequest(rs.getLong("id"), rs.getString("description"), rs.getLong("requester_id"),
+                    rs.getTimestamp("created").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ItemRequestDbRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public ItemRequest createRequest(ItemRequest request) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO requests (description, requester_id, created) VALUES (?, ?, ?)",
+                    new String[]{"id"});
+            statement.setString(1, request.getDescription());
+            statement.setLong(2, request.getRequester());
+            statement.setTimestamp(3, Timestamp.valueOf(request.getCreated()));
+            return statement;
+        }, keyHolder);
+        request.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        log.debug("Пользователь с id {} создал запрос с id {}", request.getRequester(), request.getId());
+        return request;
+    }
+
+    @Override
+    public Optional<ItemRequest> findRequestById(long requestId) {
+        return jdbcTemplate.query(SELECT_REQUESTS + "WHERE id = ?", REQUEST_ROW_MAPPER, requestId).stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<ItemRequest> getRequestsByRequester(long requesterId) {
+        return jdbcTemplate.query(SELECT_REQUESTS + "WHERE requester_id = ? ORDER BY id DESC",
+                REQUEST_ROW_MAPPER, requesterId);
+    }
+
+    @Override
+    public List<ItemRequest> getRequestsOfOthers(long userId, long after, int size) {
+        return jdbcTemplate.query(SELECT_REQUESTS + "WHERE requester_id <> ? AND (? = 0 OR id < ?) "
+                        + "ORDER BY id DESC LIMIT ?",
+                REQUEST_ROW_MAPPER, userId, after, after, size);
+    }
+}
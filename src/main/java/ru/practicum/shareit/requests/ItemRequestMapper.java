@@ -0,0 +1,26 @@
+package ru.practicum.shareit.requests;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.NewItemRequestDto;
+import ru.practicum.shareit.requests.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ItemRequestMapper {
+    public static ItemRequestDto toItemRequestDto(ItemRequest request, List<Item> items) {
+        return new ItemRequestDto(request.getId(), request.getDescription(), request.getRequester(),
+                request.getCreated(), items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList()));
+    }
+
+    public static ItemRequest toItemRequest(NewItemRequestDto requestDto, long requesterId) {
+        return new ItemRequest(0, requestDto.getDescription(), requesterId, LocalDateTime.now());
+    }
+}
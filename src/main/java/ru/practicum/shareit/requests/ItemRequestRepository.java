@@ -1,4 +1,20 @@
 package ru.practicum.shareit.requests;
 
-public class ItemRequestRepository {
+import ru.practicum.shareit.requests.model.ItemRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRequestRepository {
+    ItemRequest createRequest(ItemRequest request);
+
+    Optional<ItemRequest> findRequestById(long requestId);
+
+    List<ItemRequest> getRequestsByRequester(long requesterId);
+
+    /**
+     * Страница чужих запросов от новых к старым: запросы с id меньше {@code after}, при {@code after} = 0
+     * с самого нового.
+     */
+    List<ItemRequest> getRequestsOfOthers(long userId, long after, int size);
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.requests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.JournalRecord;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Идентификаторы запросов выдаются по возрастанию, поэтому порядок по убыванию id совпадает с порядком
+ * от новых к старым: ленты запросов читаются постранично без сортировки. Страница чужих запросов
+ * начинается сразу за курсором, так что пропускаются только собственные запросы пользователя внутри страницы.
+ */
+@Slf4j
+@Repository
+@Profile("!db")
+public class ItemRequestRepositoryImpl implements ItemRequestRepository {
+
+    private final NavigableMap<Long, ItemRequest> requests = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final Map<Long, NavigableSet<Long>> requestIdsByRequester = new ConcurrentHashMap<>();
+    private final GeneratorItemRequestId generatorItemRequestId;
+    private final Journal journal;
+
+    @Autowired
+    public ItemRequestRepositoryImpl(GeneratorItemRequestId generatorItemRequestId, Journal journal) {
+        this.generatorItemRequestId = generatorItemRequestId;
+        this.journal = journal;
+    }
+
+    @Override
+    public ItemRequest createRequest(ItemRequest request) {
+        try (Journal.Entry entry = journal.begin()) {
+            request.setId(generatorItemRequestId.generate());
+            entry.append(JournalRecord.requestSaved(request));
+            put(request);
+        }
+        log.debug("Пользователь с id {} создал запрос с id {}", request.getRequester(), request.getId());
+        return request;
+    }
+
+    @Override
+    public Optional<ItemRequest> findRequestById(long requestId) {
+        return Optional.ofNullable(requests.get(requestId));
+    }
+
+    @Override
+    public List<ItemRequest> getRequestsByRequester(long requesterId) {
+        NavigableSet<Long> requestIds = requestIdsByRequester.get(requesterId);
+        if (requestIds == null) {
+            return Collections.emptyList();
+        }
+        return requestIds.stream()
+                .map(requests::get)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemRequest> getRequestsOfOthers(long userId, long after, int size) {
+        NavigableMap<Long, ItemRequest> older = after == 0 ? requests : requests.tailMap(after, false);
+        return older.values().stream()
+                .filter(request -> request.getRequester() != userId)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    public void restore(Collection<ItemRequest> restoredRequests) {
+        restoredRequests.forEach(this::put);
+    }
+
+    public void forEachRequest(Consumer<ItemRequest> action) {
+        requests.values().forEach(action);
+    }
+
+    private void put(ItemRequest request) {
+        requests.put(request.getId(), request);
+        requestIdsByRequester.computeIfAbsent(request.getRequester(),
+                id -> new ConcurrentSkipListSet<>(Comparator.reverseOrder())).add(request.getId());
+    }
+}
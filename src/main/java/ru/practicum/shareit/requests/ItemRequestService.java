@@ -1,4 +1,17 @@
 package ru.practicum.shareit.requests;
 
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import java.util.List;
+
 public interface ItemRequestService {
+    ItemRequestDto createRequest(ItemRequest request);
+
+    List<ItemRequestDto> getOwnRequests(UserPrincipal requester);
+
+    List<ItemRequestDto> getRequestsOfOthers(UserPrincipal user, long after, int size);
+
+    ItemRequestDto getRequestById(long requestId);
 }
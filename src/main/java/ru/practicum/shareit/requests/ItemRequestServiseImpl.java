@@ -1,4 +1,72 @@
 package ru.practicum.shareit.requests;
 
-public class ItemRequestServiseImpl {
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ItemRequestServiseImpl implements ItemRequestService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    public ItemRequestServiseImpl(ItemRequestRepository itemRequestRepository, ItemRepository itemRepository) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public ItemRequestDto createRequest(ItemRequest request) {
+        if (request.getDescription() == null || request.getDescription().isBlank()) {
+            throw new IncorrectRequestException("Описание запроса не может быть пустым");
+        }
+        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.createRequest(request),
+                Collections.emptyList());
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwnRequests(UserPrincipal requester) {
+        return withItems(itemRequestRepository.getRequestsByRequester(requester.getId()));
+    }
+
+    @Override
+    public List<ItemRequestDto> getRequestsOfOthers(UserPrincipal user, long after, int size) {
+        if (after < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IncorrectRequestException("Некорректные параметры страницы: размер от 1 до " + MAX_PAGE_SIZE);
+        }
+        return withItems(itemRequestRepository.getRequestsOfOthers(user.getId(), after, size));
+    }
+
+    @Override
+    public ItemRequestDto getRequestById(long requestId) {
+        ItemRequest request = itemRequestRepository.findRequestById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос не существует"));
+        return withItems(List.of(request)).get(0);
+    }
+
+    private List<ItemRequestDto> withItems(List<ItemRequest> requests) {
+        Map<Long, List<Item>> itemsByRequest = itemRepository.getItemsByRequestIds(requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList()));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        itemsByRequest.getOrDefault(request.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
 }
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.requests.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
+@AllArgsConstructor
 public class ItemRequestDto {
     @NotNull
     @Positive
@@ -23,4 +27,6 @@ public class ItemRequestDto {
 
     @NotNull
     private LocalDateTime created;
-}
\ No newline at end of file
+
+    private List<ItemDto> items;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.requests.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewItemRequestDto {
+    @NotBlank
+    private String description;
+}
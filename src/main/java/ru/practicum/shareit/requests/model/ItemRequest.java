@@ -1,14 +1,16 @@
 package ru.practicum.shareit.requests.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 
 @Data
+@AllArgsConstructor
 public class ItemRequest {
 
     private long id;
     private String description;
     private long requester;
     private LocalDateTime created;
-}
\ No newline at end of file
+}
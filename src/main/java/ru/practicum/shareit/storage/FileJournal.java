@@ -0,0 +1,435 @@
+package ru.practicum.shareit.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал предзаписи с групповой фиксацией: записи складываются в очередь, единственный поток-писатель
+ * забирает их пачкой, пишет одним вызовом и один раз вызывает fsync на всю пачку. Файлы журнала и снимков
+ * нумеруются поколениями: снимок поколения N вместе с журналом поколения N и последующими описывает
+ * всё состояние, старые поколения удаляются после записи нового снимка. После первой ошибки записи журнал
+ * перестает принимать изменения: дописывать за оборванной записью нельзя, потому что при восстановлении
+ * всё после нее будет отброшено.
+ */
+@Slf4j
+public class FileJournal implements Journal, AutoCloseable {
+
+    private static final Pattern FILE_NAME = Pattern.compile("(snapshot|wal)-(\\d+)\\.(bin|log)");
+    private static final int MAPPING_WINDOW = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final int maxBatchSize;
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer = new Thread(this::writeLoop, "journal-writer");
+    private FileChannel channel;
+    private volatile long generation;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    public FileJournal(Path directory, boolean fsync, int maxBatchSize) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.maxBatchSize = maxBatchSize;
+        writer.setDaemon(true);
+    }
+
+    @Override
+    public Entry begin() {
+        checkNotFailed();
+        rotationLock.readLock().lock();
+        if (closed) {
+            rotationLock.readLock().unlock();
+            throw new IllegalStateException("Журнал закрыт");
+        }
+        return new FileEntry();
+    }
+
+    /**
+     * Читает последний снимок и хвост журнала, отрезает недописанную запись и начинает приём новых записей.
+     */
+    public void recover(JournalRecord.Visitor visitor) {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (file.getFileName().toString().endsWith(".tmp")) {
+                        Files.delete(file);
+                    }
+                }
+            }
+            long snapshotGeneration = latestGeneration("snapshot");
+            generation = Math.max(snapshotGeneration, 0);
+            if (snapshotGeneration >= 0) {
+                Path snapshot = file("snapshot", snapshotGeneration);
+                if (read(snapshot, visitor) != Files.size(snapshot)) {
+                    throw new IllegalStateException("Снимок " + snapshot + " поврежден");
+                }
+            }
+            for (long walGeneration : generations("wal")) {
+                if (walGeneration < generation) {
+                    continue;
+                }
+                Path wal = file("wal", walGeneration);
+                long validLength = read(wal, visitor);
+                if (validLength < Files.size(wal)) {
+                    log.warn("Отброшен недописанный хвост журнала {} с позиции {}", wal, validLength);
+                    try (FileChannel truncated = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+                        truncated.truncate(validLength);
+                    }
+                }
+                generation = walGeneration;
+            }
+            channel = openSegment(generation);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writer.start();
+    }
+
+    /**
+     * Переключает запись на журнал следующего поколения. Все изменения, попавшие в предыдущий журнал,
+     * к моменту возврата уже применены к хранилищам.
+     */
+    public long rotate() {
+        checkNotFailed();
+        Pending marker = new Pending(null, Pending.Kind.ROTATE);
+        rotationLock.writeLock().lock();
+        try {
+            checkNotClosed();
+            queue.add(marker);
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+        await(marker.done);
+        return generation;
+    }
+
+    /**
+     * Записывает снимок поколения через отображаемые в память окна файла и удаляет предыдущие поколения.
+     */
+    public void writeSnapshot(long snapshotGeneration, Consumer<SnapshotWriter> source) {
+        Path target = file("snapshot", snapshotGeneration);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (SnapshotWriter snapshotWriter = new SnapshotWriter(temporary)) {
+                source.accept(snapshotWriter);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            for (String kind : List.of("snapshot", "wal")) {
+                for (long oldGeneration : generations(kind)) {
+                    if (oldGeneration < snapshotGeneration) {
+                        Files.deleteIfExists(file(kind, oldGeneration));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Закрывает журнал под блокировкой переключения: записи уже начатых изменений попадают в очередь раньше
+     * маркера закрытия и успевают записаться, а новые изменения после закрытия отклоняются в {@link #begin()}.
+     */
+    @Override
+    public void close() {
+        Pending marker = new Pending(null, Pending.Kind.CLOSE);
+        rotationLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (!writer.isAlive()) {
+                return;
+            }
+            queue.add(marker);
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+        await(marker.done);
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            int from = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Pending marker = batch.get(i);
+                if (marker.kind == Pending.Kind.RECORD) {
+                    continue;
+                }
+                buffer = flush(batch.subList(from, i), buffer);
+                try {
+                    if (marker.kind == Pending.Kind.ROTATE && failure != null) {
+                        throw failure;
+                    }
+                    channel.close();
+                    if (marker.kind == Pending.Kind.ROTATE) {
+                        channel = openSegment(generation + 1);
+                        generation++;
+                    } else {
+                        running = false;
+                    }
+                    marker.done.complete(null);
+                } catch (IOException e) {
+                    log.error("Не удалось переключить файл журнала", e);
+                    failure = e;
+                    marker.done.completeExceptionally(e);
+                }
+                from = i + 1;
+            }
+            buffer = flush(batch.subList(from, batch.size()), buffer);
+            batch.clear();
+        }
+    }
+
+    private ByteBuffer flush(List<Pending> records, ByteBuffer buffer) {
+        if (records.isEmpty()) {
+            return buffer;
+        }
+        if (failure != null) {
+            for (Pending pending : records) {
+                pending.done.completeExceptionally(failure);
+            }
+            return buffer;
+        }
+        int size = 0;
+        for (Pending pending : records) {
+            size += pending.record.frameLength();
+        }
+        if (size > buffer.capacity()) {
+            buffer = ByteBuffer.allocateDirect(Math.max(size, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        for (Pending pending : records) {
+            pending.record.writeFrame(buffer);
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            for (Pending pending : records) {
+                pending.done.complete(null);
+            }
+        } catch (IOException e) {
+            log.error("Не удалось записать {} записей журнала, журнал закрыт для изменений", records.size(), e);
+            failure = e;
+            for (Pending pending : records) {
+                pending.done.completeExceptionally(e);
+            }
+        }
+        return buffer;
+    }
+
+    private FileChannel openSegment(long segmentGeneration) throws IOException {
+        return FileChannel.open(file("wal", segmentGeneration),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private long read(Path file, JournalRecord.Visitor visitor) throws IOException {
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = source.size();
+            long position = 0;
+            long windowStart = 0;
+            MappedByteBuffer window = null;
+            CRC32 checksum = new CRC32();
+            while (position + JournalRecord.FRAME_HEADER <= size) {
+                if (window == null || position + JournalRecord.FRAME_HEADER > windowStart + window.capacity()) {
+                    windowStart = position;
+                    window = map(source, position, size);
+                }
+                int length = window.getInt((int) (position - windowStart));
+                int expectedChecksum = window.getInt((int) (position - windowStart) + Integer.BYTES);
+                long end = position + JournalRecord.FRAME_HEADER + length;
+                if (length <= 0 || end > size) {
+                    break;
+                }
+                if (end > windowStart + window.capacity()) {
+                    windowStart = position;
+                    window = map(source, position, size);
+                }
+                int payloadStart = (int) (position - windowStart) + JournalRecord.FRAME_HEADER;
+                ByteBuffer payload = window.duplicate();
+                payload.limit(payloadStart + length).position(payloadStart);
+                checksum.reset();
+                checksum.update(payload.duplicate());
+                if ((int) checksum.getValue() != expectedChecksum) {
+                    break;
+                }
+                JournalRecord.decode(payload, visitor);
+                position = end;
+            }
+            return position;
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel source, long position, long size) throws IOException {
+        return source.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPING_WINDOW, size - position));
+    }
+
+    private long latestGeneration(String kind) throws IOException {
+        List<Long> generations = generations(kind);
+        return generations.isEmpty() ? -1 : generations.get(generations.size() - 1);
+    }
+
+    private List<Long> generations(String kind) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && matcher.group(1).equals(kind)) {
+                    generations.add(Long.parseLong(matcher.group(2)));
+                }
+            });
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path file(String kind, long fileGeneration) {
+        return directory.resolve(kind + "-" + fileGeneration + (kind.equals("wal") ? ".log" : ".bin"));
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new IllegalStateException("Журнал недоступен после ошибки записи", failure);
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("Журнал закрыт");
+        }
+    }
+
+    private static void await(CompletableFuture<Void> done) {
+        try {
+            done.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Изменение не записано в журнал", e.getCause());
+        }
+    }
+
+    private class FileEntry implements Entry {
+
+        private CompletableFuture<Void> last;
+
+        @Override
+        public void append(JournalRecord record) {
+            Pending pending = new Pending(record, Pending.Kind.RECORD);
+            queue.add(pending);
+            last = pending.done;
+        }
+
+        @Override
+        public void close() {
+            rotationLock.readLock().unlock();
+            if (last != null) {
+                await(last);
+            }
+        }
+    }
+
+    private static class Pending {
+
+        private final JournalRecord record;
+        private final Kind kind;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(JournalRecord record, Kind kind) {
+            this.record = record;
+            this.kind = kind;
+        }
+
+        enum Kind {
+            RECORD,
+            ROTATE,
+            CLOSE
+        }
+    }
+
+    /**
+     * Пишет записи снимка окнами по {@value #MAPPING_WINDOW} байт, отображенными в память; запись,
+     * не помещающаяся в остаток окна, начинает новое окно с текущей позиции.
+     */
+    public static class SnapshotWriter implements AutoCloseable {
+
+        private final FileChannel target;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        SnapshotWriter(Path file) throws IOException {
+            target = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        public void write(JournalRecord record) {
+            try {
+                if (window == null || window.remaining() < record.frameLength()) {
+                    long position = position();
+                    if (window != null) {
+                        window.force();
+                    }
+                    windowStart = position;
+                    window = target.map(FileChannel.MapMode.READ_WRITE, position,
+                            Math.max(MAPPING_WINDOW, record.frameLength()));
+                }
+                record.writeFrame(window);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (window != null) {
+                window.force();
+            }
+            target.truncate(position());
+            target.force(true);
+            target.close();
+        }
+
+        private long position() {
+            return window == null ? 0 : windowStart + window.position();
+        }
+    }
+}
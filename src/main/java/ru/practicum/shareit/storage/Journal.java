@@ -0,0 +1,33 @@
+package ru.practicum.shareit.storage;
+
+/**
+ * Журнал изменений in-memory хранилищ. Изменение выполняется внутри {@link Entry}: запись добавляется
+ * после того, как изменение применено к карте, без общей с ним блокировки, поэтому записи параллельных
+ * изменений одной сущности могут лечь в журнал в любом порядке. Восстановление от порядка не зависит:
+ * из записей о сохранении побеждает запись с большей версией, а сохранение, записанное после удаления,
+ * удаленную сущность не возвращает. Ожидание сброса на диск происходит в {@link Entry#close()}.
+ */
+public interface Journal {
+
+    Journal NOOP = () -> Entry.NOOP;
+
+    Entry begin();
+
+    interface Entry extends AutoCloseable {
+
+        Entry NOOP = new Entry() {
+            @Override
+            public void append(JournalRecord record) {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        void append(JournalRecord record);
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Path;
+
+@Configuration
+public class JournalConfig {
+
+    @Bean
+    @Profile("!db")
+    @ConditionalOnProperty(name = "shareit.storage.journal.enabled", havingValue = "true")
+    public FileJournal fileJournal(@Value("${shareit.storage.journal.directory:data}") Path directory,
+                                   @Value("${shareit.storage.journal.fsync:true}") boolean fsync,
+                                   @Value("${shareit.storage.journal.max-batch-size:1024}") int maxBatchSize) {
+        return new FileJournal(directory, fsync, maxBatchSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.storage.journal.enabled", havingValue = "false", matchIfMissing = true)
+    public Journal journal() {
+        return Journal.NOOP;
+    }
+}
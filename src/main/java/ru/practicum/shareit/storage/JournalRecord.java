@@ -0,0 +1,259 @@
+package ru.practicum.shareit.storage;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Запись журнала в компактном двоичном виде: байт типа, затем поля фиксированной длины и строки
+ * в UTF-8 с префиксом длины (-1 для null). В файле запись предваряется длиной и CRC32, по которым
+ * при восстановлении отбрасывается недописанный хвост. Запись кодируется сразу при создании, чтобы
+ * в журнал попало состояние сущности на момент изменения. Формат строгий: запись с недостающими
+ * или лишними байтами считается повреждением журнала.
+ */
+public final class JournalRecord {
+
+    static final int FRAME_HEADER = 2 * Integer.BYTES;
+
+    private static final byte USER_SAVED = 1;
+    private static final byte USER_DELETED = 2;
+    private static final byte ITEM_SAVED = 3;
+    private static final byte SEQUENCE = 4;
+    private static final byte ITEM_DELETED = 5;
+    private static final byte REQUEST_SAVED = 6;
+    private static final byte BOOKING_SAVED = 7;
+
+    private byte[] bytes = new byte[64];
+    private int length;
+
+    private JournalRecord(byte type) {
+        writeByte(type);
+    }
+
+    public static JournalRecord userSaved(User user) {
+        JournalRecord record = new JournalRecord(USER_SAVED);
+        record.writeLong(user.getId());
+        record.writeString(user.getName());
+        record.writeString(user.getEmail());
+        record.writeLong(user.getVersion());
+        return record;
+    }
+
+    public static JournalRecord userDeleted(long userId) {
+        JournalRecord record = new JournalRecord(USER_DELETED);
+        record.writeLong(userId);
+        return record;
+    }
+
+    public static JournalRecord itemSaved(Item item) {
+        JournalRecord record = new JournalRecord(ITEM_SAVED);
+        record.writeLong(item.getId());
+        record.writeString(item.getName());
+        record.writeString(item.getDescription());
+        record.writeByte(item.getAvailable() == null ? -1 : item.getAvailable() ? 1 : 0);
+        record.writeLong(item.getOwnerId());
+        record.writeLong(item.getRequestId() == null ? -1 : item.getRequestId());
+        record.writeLong(item.getVersion());
+        return record;
+    }
+
+    public static JournalRecord itemDeleted(long itemId) {
+        JournalRecord record = new JournalRecord(ITEM_DELETED);
+        record.writeLong(itemId);
+        return record;
+    }
+
+    public static JournalRecord requestSaved(ItemRequest request) {
+        JournalRecord record = new JournalRecord(REQUEST_SAVED);
+        record.writeLong(request.getId());
+        record.writeString(request.getDescription());
+        record.writeLong(request.getRequester());
+        record.writeDateTime(request.getCreated());
+        return record;
+    }
+
+    public static JournalRecord bookingSaved(Booking booking, long ownerId) {
+        JournalRecord record = new JournalRecord(BOOKING_SAVED);
+        record.writeLong(booking.getId());
+        record.writeDateTime(booking.getStart());
+        record.writeDateTime(booking.getEnd());
+        record.writeLong(booking.getItem());
+        record.writeLong(booking.getBooker());
+        record.writeLong(ownerId);
+        record.writeByte(booking.getStatus().ordinal());
+        return record;
+    }
+
+    public static JournalRecord sequence(Sequence sequence, long value) {
+        JournalRecord record = new JournalRecord(SEQUENCE);
+        record.writeByte(sequence.ordinal());
+        record.writeLong(value);
+        return record;
+    }
+
+    public static void decode(ByteBuffer payload, Visitor visitor) {
+        byte type = payload.get();
+        switch (type) {
+            case USER_SAVED:
+                User user = new User(payload.getLong(), readString(payload), readString(payload), payload.getLong());
+                checkFullyRead(payload, type);
+                visitor.userSaved(user);
+                break;
+            case USER_DELETED:
+                long userId = payload.getLong();
+                checkFullyRead(payload, type);
+                visitor.userDeleted(userId);
+                break;
+            case ITEM_SAVED:
+                long id = payload.getLong();
+                String name = readString(payload);
+                String description = readString(payload);
+                byte available = payload.get();
+                long ownerId = payload.getLong();
+                long requestId = payload.getLong();
+                Item item = new Item(id, name, description, available < 0 ? null : available == 1, ownerId,
+                        requestId < 0 ? null : requestId, payload.getLong());
+                checkFullyRead(payload, type);
+                visitor.itemSaved(item);
+                break;
+            case ITEM_DELETED:
+                long itemId = payload.getLong();
+                checkFullyRead(payload, type);
+                visitor.itemDeleted(itemId);
+                break;
+            case REQUEST_SAVED:
+                ItemRequest request = new ItemRequest(payload.getLong(), readString(payload), payload.getLong(),
+                        readDateTime(payload));
+                checkFullyRead(payload, type);
+                visitor.requestSaved(request);
+                break;
+            case BOOKING_SAVED:
+                long bookingId = payload.getLong();
+                LocalDateTime start = readDateTime(payload);
+                LocalDateTime end = readDateTime(payload);
+                long bookedItemId = payload.getLong();
+                long bookerId = payload.getLong();
+                long bookingOwnerId = payload.getLong();
+                Booking booking = new Booking(bookingId, start, end, bookedItemId, bookerId,
+                        Status.values()[payload.get()]);
+                checkFullyRead(payload, type);
+                visitor.bookingSaved(booking, bookingOwnerId);
+                break;
+            case SEQUENCE:
+                Sequence sequence = Sequence.values()[payload.get()];
+                long value = payload.getLong();
+                checkFullyRead(payload, type);
+                visitor.sequence(sequence, value);
+                break;
+            default:
+                throw new IllegalStateException("Неизвестный тип записи журнала: " + type);
+        }
+    }
+
+    int frameLength() {
+        return FRAME_HEADER + length;
+    }
+
+    void writeFrame(ByteBuffer buffer) {
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, length);
+        buffer.putInt(length);
+        buffer.putInt((int) checksum.getValue());
+        buffer.put(bytes, 0, length);
+    }
+
+    private static void checkFullyRead(ByteBuffer payload, byte type) {
+        if (payload.hasRemaining()) {
+            throw new IllegalStateException("Лишние байты в записи журнала типа " + type + ": "
+                    + payload.remaining());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer payload) {
+        return LocalDateTime.ofEpochSecond(payload.getLong(), payload.getInt(), ZoneOffset.UTC);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeDateTime(LocalDateTime value) {
+        writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        writeInt(value.getNano());
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(encoded.length);
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, length, encoded.length);
+        length += encoded.length;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            bytes[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(Long.BYTES);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            bytes[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+
+    public enum Sequence {
+        USER,
+        ITEM,
+        REQUEST,
+        BOOKING
+    }
+
+    public interface Visitor {
+        void userSaved(User user);
+
+        void userDeleted(long userId);
+
+        void itemSaved(Item item);
+
+        void itemDeleted(long itemId);
+
+        void requestSaved(ItemRequest request);
+
+        void bookingSaved(Booking booking, long ownerId);
+
+        void sequence(Sequence sequence, long value);
+    }
+}
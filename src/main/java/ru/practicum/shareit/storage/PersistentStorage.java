@@ -0,0 +1,207 @@
+package ru.practicum.shareit.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepositoryImpl;
+import ru.practicum.shareit.booking.GeneratorBookingId;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.GeneratorItemId;
+import ru.practicum.shareit.item.ItemRepositoryImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.GeneratorItemRequestId;
+import ru.practicum.shareit.requests.ItemRequestRepositoryImpl;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.GeneratorUserId;
+import ru.practicum.shareit.user.UserRepositoryImpl;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Восстанавливает in-memory хранилища из снимка и журнала до приёма запросов и периодически пишет
+ * новый снимок, после которого журнал начинается заново.
+ */
+@Slf4j
+@Component
+@Profile("!db")
+@ConditionalOnProperty(name = "shareit.storage.journal.enabled", havingValue = "true")
+public class PersistentStorage {
+
+    private final FileJournal journal;
+    private final UserRepositoryImpl userRepository;
+    private final ItemRepositoryImpl itemRepository;
+    private final ItemRequestRepositoryImpl requestRepository;
+    private final BookingRepositoryImpl bookingRepository;
+    private final GeneratorUserId generatorUserId;
+    private final GeneratorItemId generatorItemId;
+    private final GeneratorItemRequestId generatorItemRequestId;
+    private final GeneratorBookingId generatorBookingId;
+    private final Duration snapshotInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PersistentStorage(FileJournal journal, UserRepositoryImpl userRepository,
+                             ItemRepositoryImpl itemRepository, ItemRequestRepositoryImpl requestRepository,
+                             BookingRepositoryImpl bookingRepository, GeneratorUserId generatorUserId,
+                             GeneratorItemId generatorItemId, GeneratorItemRequestId generatorItemRequestId,
+                             GeneratorBookingId generatorBookingId,
+                             @Value("${shareit.storage.journal.snapshot-interval:PT10M}") Duration snapshotInterval) {
+        this.journal = journal;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.requestRepository = requestRepository;
+        this.bookingRepository = bookingRepository;
+        this.generatorUserId = generatorUserId;
+        this.generatorItemId = generatorItemId;
+        this.generatorItemRequestId = generatorItemRequestId;
+        this.generatorBookingId = generatorBookingId;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @PostConstruct
+    public void recover() {
+        long startedAt = System.nanoTime();
+        Map<Long, User> users = new HashMap<>();
+        Map<Long, Item> items = new HashMap<>();
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        Map<Long, Booking> bookings = new HashMap<>();
+        Map<Long, Long> ownerByItem = new HashMap<>();
+        Set<Long> deletedUserIds = new HashSet<>();
+        Set<Long> deletedItemIds = new HashSet<>();
+        journal.recover(new JournalRecord.Visitor() {
+            @Override
+            public void userSaved(User user) {
+                if (!deletedUserIds.contains(user.getId())) {
+                    users.merge(user.getId(), user, PersistentStorage::newerUser);
+                }
+                generatorUserId.advanceTo(user.getId());
+            }
+
+            @Override
+            public void userDeleted(long userId) {
+                users.remove(userId);
+                deletedUserIds.add(userId);
+            }
+
+            @Override
+            public void itemSaved(Item item) {
+                if (!deletedItemIds.contains(item.getId())) {
+                    items.merge(item.getId(), item, PersistentStorage::newerItem);
+                }
+                generatorItemId.advanceTo(item.getId());
+            }
+
+            @Override
+            public void itemDeleted(long itemId) {
+                items.remove(itemId);
+                deletedItemIds.add(itemId);
+            }
+
+            @Override
+            public void requestSaved(ItemRequest request) {
+                requests.put(request.getId(), request);
+                generatorItemRequestId.advanceTo(request.getId());
+            }
+
+            @Override
+            public void bookingSaved(Booking booking, long ownerId) {
+                bookings.merge(booking.getId(), booking, PersistentStorage::newerBooking);
+                ownerByItem.put(booking.getItem(), ownerId);
+                generatorBookingId.advanceTo(booking.getId());
+            }
+
+            @Override
+            public void sequence(JournalRecord.Sequence sequence, long value) {
+                switch (sequence) {
+                    case USER:
+                        generatorUserId.advanceTo(value);
+                        break;
+                    case ITEM:
+                        generatorItemId.advanceTo(value);
+                        break;
+                    case BOOKING:
+                        generatorBookingId.advanceTo(value);
+                        break;
+                    default:
+                        generatorItemRequestId.advanceTo(value);
+                }
+            }
+        });
+        items.values().removeIf(item -> !users.containsKey(item.getOwnerId()));
+        userRepository.restore(users.values());
+        itemRepository.restore(items.values());
+        requestRepository.restore(requests.values());
+        bookingRepository.restore(bookings.values(), ownerByItem);
+        log.info("Восстановлено {} пользователей, {} вещей, {} запросов и {} бронирований за {} мс", users.size(),
+                items.size(), requests.size(), bookings.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        long interval = snapshotInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void snapshot() {
+        long generation = journal.rotate();
+        journal.writeSnapshot(generation, writer -> {
+            writer.write(JournalRecord.sequence(JournalRecord.Sequence.USER, generatorUserId.current()));
+            writer.write(JournalRecord.sequence(JournalRecord.Sequence.ITEM, generatorItemId.current()));
+            writer.write(JournalRecord.sequence(JournalRecord.Sequence.REQUEST, generatorItemRequestId.current()));
+            writer.write(JournalRecord.sequence(JournalRecord.Sequence.BOOKING, generatorBookingId.current()));
+            userRepository.forEachUser(user -> writer.write(JournalRecord.userSaved(user)));
+            itemRepository.forEachItem(item -> writer.write(JournalRecord.itemSaved(item)));
+            requestRepository.forEachRequest(request -> writer.write(JournalRecord.requestSaved(request)));
+            bookingRepository.forEachBooking((booking, ownerId) ->
+                    writer.write(JournalRecord.bookingSaved(booking, ownerId)));
+        });
+        log.info("Записан снимок хранилища поколения {}", generation);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("Не удалось записать снимок хранилища", e);
+        }
+    }
+
+    /**
+     * Изменения одной сущности могут попасть в журнал не в порядке их применения, поэтому при
+     * восстановлении побеждает запись с большей версией. Идентификаторы вещей не переиспользуются,
+     * так что запись об изменении вещи после ее удаления устарела и пропускается. У бронирования версии нет,
+     * но статус меняется только один раз, из ожидания, поэтому рассмотренное бронирование новее ожидающего.
+     */
+    private static User newerUser(User restored, User replayed) {
+        return replayed.getVersion() >= restored.getVersion() ? replayed : restored;
+    }
+
+    private static Item newerItem(Item restored, Item replayed) {
+        return replayed.getVersion() >= restored.getVersion() ? replayed : restored;
+    }
+
+    private static Booking newerBooking(Booking restored, Booking replayed) {
+        return replayed.getStatus() != Status.WAITING ? replayed : restored;
+    }
+}
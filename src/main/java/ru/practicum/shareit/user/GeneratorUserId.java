@@ -2,11 +2,25 @@ package ru.practicum.shareit.user;
 
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 @Component
 public class GeneratorUserId {
-    private long id = 0;
+    private final AtomicLong id = new AtomicLong();
 
     public long generate() {
-        return ++id;
+        return id.incrementAndGet();
+    }
+
+    public long reserve(int count) {
+        return id.getAndAdd(count) + 1;
+    }
+
+    public long current() {
+        return id.get();
+    }
+
+    public void advanceTo(long value) {
+        id.accumulateAndGet(value, Math::max);
     }
 }
\ No newline at end of file
@@ -1,7 +1,16 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchMapper;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.etag.VersionTag;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -12,11 +21,16 @@ import java.util.stream.Collectors;
 @RequestMapping(path = "/users")
 public class UserController {
 
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int STREAM_PAGE_SIZE = 500;
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -25,11 +39,24 @@ public class UserController {
         return UserMapper.toUserDto(userService.createUser(user));
     }
 
+    @PostMapping("/batch")
+    public List<BatchResultDto<UserDto>> createUsers(@RequestBody List<UserDto> userDtos) {
+        List<User> users = userDtos.stream()
+                .map(UserMapper::toUser)
+                .collect(Collectors.toList());
+        return BatchMapper.toBatchResultDto(userService.createUsers(users), UserMapper::toUserDto);
+    }
+
     @PatchMapping("/{id}")
-    public UserDto update(@PathVariable("id") Long userId,
-                          @RequestBody UserDto userDto) {
-        User updateUser = UserMapper.toUser(userDto);
-        return UserMapper.toUserDto(userService.updateUser(userId, updateUser));
+    public ResponseEntity<UserDto> update(@PathVariable("id") Long userId,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                          String ifMatch,
+                                          @RequestBody UserDto userDto) {
+        User updateUser = UserMapper.toUser(userDto).withVersion(VersionTag.parseIfMatch(ifMatch, userId));
+        User user = userService.updateUser(userId, updateUser);
+        return ResponseEntity.ok()
+                .eTag(UserMapper.toETag(user))
+                .body(UserMapper.toUserDto(user));
     }
 
     @DeleteMapping("/{id}")
@@ -38,16 +65,36 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public UserDto getUserById(@PathVariable("id") Long userId) {
+    public UserDto getUserById(@PathVariable("id") Long userId, WebRequest request) {
         User user = userService.getUserById(userId);
+        if (request.checkNotModified(UserMapper.toETag(user))) {
+            return null;
+        }
         return UserMapper.toUserDto(user);
     }
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userService.getAllUsers()
+    public List<UserDto> getAllUsers(@RequestParam(defaultValue = "0") long after,
+                                     @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return userService.getAllUsers(after, size)
                 .stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = out -> {
+            List<User> page = userService.getAllUsers(0, STREAM_PAGE_SIZE);
+            while (!page.isEmpty()) {
+                for (User user : page) {
+                    out.write(objectMapper.writeValueAsBytes(UserMapper.toUserDto(user)));
+                    out.write('\n');
+                }
+                out.flush();
+                page = userService.getAllUsers(page.get(page.size() - 1).getId(), STREAM_PAGE_SIZE);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
\ No newline at end of file
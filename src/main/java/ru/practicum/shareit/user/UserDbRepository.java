@@ -0,0 +1,142 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.etag.VersionTag;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+@Slf4j
+@Repository
+@Profile("db")
+public class UserDbRepository implements UserRepository {
+
+    private static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) ->
+            new User(rs.getLong("id"), rs.getString("name"), rs.getString("email"), rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserDbRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Почта хранится в том виде, в каком ее прислал клиент, а уникальность проверяется по колонке
+     * email_lower с приведенным адресом: сравнение не учитывает регистр и пробелы по краям, как в хранилище
+     * в памяти, и одинаково работает в H2 и PostgreSQL.
+     */
+    @Override
+    public User createUser(User user) {
+        checkEmail(user);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO users (name, email, email_lower) VALUES (?, ?, ?)", new String[]{"id"});
+                statement.setString(1, user.getName());
+                statement.setString(2, user.getEmail());
+                statement.setString(3, normalizeEmail(user.getEmail()));
+                return statement;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            throw emailConflict(user.getEmail());
+        }
+        User newUser = user.withId(Objects.requireNonNull(keyHolder.getKey()).longValue()).withVersion(1);
+        log.debug("Создан пользователь с id {}.", newUser.getId());
+        return newUser;
+    }
+
+    @Override
+    public List<BatchResult<User>> createUsers(List<User> newUsers) {
+        List<BatchResult<User>> results = new ArrayList<>(newUsers.size());
+        for (User user : newUsers) {
+            try {
+                results.add(BatchResult.created(createUser(user)));
+            } catch (IncorrectRequestException | ConflictingException e) {
+                results.add(BatchResult.failed(e));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public User updateUser(Long userId, User updateUser) {
+        String emailLower = updateUser.getEmail() == null ? null : normalizeEmail(updateUser.getEmail());
+        int updated;
+        try {
+            updated = jdbcTemplate.update("UPDATE users SET name = COALESCE(?, name), email = COALESCE(?, email), "
+                            + "email_lower = COALESCE(?, email_lower), version = version + 1 "
+                            + "WHERE id = ? AND (? = " + VersionTag.ANY_VERSION + " OR version = ?)",
+                    updateUser.getName(), updateUser.getEmail(), emailLower, userId, updateUser.getVersion(),
+                    updateUser.getVersion());
+        } catch (DuplicateKeyException e) {
+            throw emailConflict(updateUser.getEmail());
+        }
+        if (updated == 0) {
+            User user = findUserById(userId)
+                    .orElseThrow(() -> new NotFoundException("Пользователь не существует"));
+            throw new PreconditionFailedException("Пользователь с id " + userId + " уже изменен, текущая версия "
+                    + user.getVersion());
+        }
+        log.debug("Пользователь с id {} обновлен", userId);
+        return findUserById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не существует"));
+    }
+
+    @Override
+    public void deleteUser(Long userId) {
+        if (jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId) == 0) {
+            throw new NotFoundException("Пользователь не существует");
+        }
+        log.debug("Пользователь с id {} удален", userId);
+    }
+
+    @Override
+    public Optional<User> findUserById(Long userId) {
+        return jdbcTemplate.query("SELECT id, name, email, version FROM users WHERE id = ?", USER_ROW_MAPPER, userId)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<User> getAllUsers(long after, int size) {
+        log.debug("Возвращен список пользователей после id {}", after);
+        return jdbcTemplate.query("SELECT id, name, email, version FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                USER_ROW_MAPPER, after, size);
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private ConflictingException emailConflict(String email) {
+        log.warn("Электронный адрес {} уже существует", email);
+        return new ConflictingException("Пользователь с указанной электронной почтой уже создан.");
+    }
+
+    private void checkEmail(User user) {
+        if (user.getEmail() == null || !user.getEmail().contains("@")) {
+            log.error("Электронная почта не может быть пустой и должна содержать символ @, текущая: {}", user.getEmail());
+            throw new IncorrectRequestException("электронная почта не может быть пустой и должна содержать символ @");
+        }
+    }
+}
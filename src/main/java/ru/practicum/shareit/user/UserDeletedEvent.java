@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+/**
+ * Публикуется сервисом через ApplicationEventPublisher в потоке запроса в любом профиле хранения. По нему
+ * удаляются вещи пользователя, поэтому оно не идет через шину доменных событий, которая при DROP может
+ * его отбросить.
+ */
+@Value
+public class UserDeletedEvent {
+
+    long userId;
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+@Slf4j
+@Component
+public class UserPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String USER_ID_IN_HEADER = "X-Sharer-User-Id";
+
+    private final UserService userService;
+
+    @Autowired
+    public UserPrincipalArgumentResolver(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return UserPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public UserPrincipal resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                         NativeWebRequest webRequest, WebDataBinderFactory binderFactory)
+            throws MissingRequestHeaderException {
+        String header = webRequest.getHeader(USER_ID_IN_HEADER);
+        if (header == null) {
+            throw new MissingRequestHeaderException(USER_ID_IN_HEADER, parameter);
+        }
+        long userId;
+        try {
+            userId = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Некорректный id пользователя в заголовке: {}", header);
+            throw new IncorrectRequestException("Некорректный id пользователя в заголовке " + USER_ID_IN_HEADER);
+        }
+        return new UserPrincipal(userService.getUserById(userId).getId());
+    }
+}
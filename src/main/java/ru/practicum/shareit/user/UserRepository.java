@@ -1,17 +1,25 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.batch.BatchResult;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository {
     User createUser(User user);
 
+    List<BatchResult<User>> createUsers(List<User> users);
+
     User updateUser(Long userId, User updateUser);
 
     void deleteUser(Long userId);
 
-    User getUserById(Long userId);
+    Optional<User> findUserById(Long userId);
 
-    List<User> getAllUsers();
+    /**
+     * Страница пользователей с id больше {@code after}. Как и для вещей, пользователь, созданный во время
+     * обхода, может получить id меньше уже прочитанного и в этом обходе не появиться.
+     */
+    List<User> getAllUsers(long after, int size);
 }
\ No newline at end of file
@@ -2,90 +2,218 @@ package ru.practicum.shareit.user;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.etag.VersionTag;
+import ru.practicum.shareit.event.DomainEventBus;
 import ru.practicum.shareit.exception.ConflictingException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.JournalRecord;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Repository
+@Profile("!db")
 public class UserRepositoryImpl implements UserRepository {
 
-    private final Map<Long, User> users = new HashMap<>();
+    private static final long UNASSIGNED_ID = 0;
+
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> userIds = new ConcurrentSkipListSet<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
     private GeneratorUserId generatorUserId;
+    private final Journal journal;
+    private final DomainEventBus eventBus;
 
     @Autowired
-    public UserRepositoryImpl(GeneratorUserId generatorUserId) {
+    public UserRepositoryImpl(GeneratorUserId generatorUserId, Journal journal, DomainEventBus eventBus) {
         this.generatorUserId = generatorUserId;
+        this.journal = journal;
+        this.eventBus = eventBus;
     }
 
     @Override
     public User createUser(User user) {
-        checkUniqueEmail(user.getEmail());
         checkEmail(user);
-        user.setId(generatorUserId.generate());
-        users.put(user.getId(), user);
-        log.debug("Создан пользователь с id {}.", user.getId());
-        return user;
+        User newUser;
+        try (Journal.Entry entry = journal.begin()) {
+            reserveEmail(user.getEmail(), UNASSIGNED_ID);
+            newUser = user.withId(generatorUserId.generate()).withVersion(1);
+            userIdsByEmail.put(normalizeEmail(newUser.getEmail()), newUser.getId());
+            entry.append(JournalRecord.userSaved(newUser));
+            put(newUser);
+        }
+        log.debug("Создан пользователь с id {}.", newUser.getId());
+        return newUser;
     }
 
     @Override
-    public User updateUser(Long userId, User updateUser) {
-        checkUserId(userId);
-        User user = getUserById(userId);
-        if (updateUser.getEmail() != null && user.getEmail().contains("@")) {
-            checkUniqueEmail(updateUser.getEmail());
-            user.setEmail(updateUser.getEmail());
+    public List<BatchResult<User>> createUsers(List<User> newUsers) {
+        List<BatchResult<User>> results = new ArrayList<>(newUsers.size());
+        List<Integer> accepted = new ArrayList<>(newUsers.size());
+        try (Journal.Entry entry = journal.begin()) {
+            for (User user : newUsers) {
+                try {
+                    checkEmail(user);
+                    reserveEmail(user.getEmail(), UNASSIGNED_ID);
+                    accepted.add(results.size());
+                    results.add(null);
+                } catch (IncorrectRequestException | ConflictingException e) {
+                    results.add(BatchResult.failed(e));
+                }
+            }
+            long id = generatorUserId.reserve(accepted.size());
+            for (int position : accepted) {
+                User user = newUsers.get(position).withId(id++).withVersion(1);
+                userIdsByEmail.put(normalizeEmail(user.getEmail()), user.getId());
+                entry.append(JournalRecord.userSaved(user));
+                put(user);
+                results.set(position, BatchResult.created(user));
+            }
         }
-        if (updateUser.getName() != null) {
-            user.setName(updateUser.getName());
+        log.debug("Создано {} пользователей", accepted.size());
+        return results;
+    }
+
+    /**
+     * Изменение подменяет пользователя без блокировок: новая почта резервируется до замены, замена проходит,
+     * только если пользователь не изменился с момента чтения, а при неудаче резерв снимается и изменение
+     * повторяется над свежей копией. Версия из образца сверяется с прочитанной копией, поэтому из двух изменений
+     * по одной версии проходит одно. Запись в журнал делается после замены, и записи параллельных изменений
+     * могут лечь в журнал в любом порядке.
+     */
+    @Override
+    public User updateUser(Long userId, User updateUser) {
+        User oldUser;
+        User newUser;
+        try (Journal.Entry entry = journal.begin()) {
+            while (true) {
+                oldUser = users.get(userId);
+                if (oldUser == null) {
+                    throw new NotFoundException("Пользователь не существует");
+                }
+                if (updateUser.getVersion() != VersionTag.ANY_VERSION && updateUser.getVersion() != oldUser.getVersion()) {
+                    throw new PreconditionFailedException("Пользователь с id " + userId
+                            + " уже изменен, текущая версия " + oldUser.getVersion());
+                }
+                newUser = oldUser.withVersion(oldUser.getVersion() + 1);
+                String reservedEmail = null;
+                if (updateUser.getEmail() != null && oldUser.getEmail().contains("@")) {
+                    newUser = newUser.withEmail(updateUser.getEmail());
+                    String email = normalizeEmail(updateUser.getEmail());
+                    if (!email.equals(normalizeEmail(oldUser.getEmail())) && reserveEmail(email, userId)) {
+                        reservedEmail = email;
+                    }
+                }
+                if (updateUser.getName() != null) {
+                    newUser = newUser.withName(updateUser.getName());
+                }
+                if (users.replace(userId, oldUser, newUser)) {
+                    break;
+                }
+                releaseEmail(reservedEmail, userId);
+            }
+            releaseEmail(normalizeEmail(oldUser.getEmail()), userId);
+            entry.append(JournalRecord.userSaved(newUser));
         }
-        log.info("Пользователь с id {} обновлен", user.getId());
-        return user;
+        eventBus.publish(new UserUpdatedEvent(oldUser, newUser));
+        return newUser;
     }
 
     @Override
     public void deleteUser(Long userId) {
-        checkUserId(userId);
-        users.remove(userId);
-        log.info("Пользователь с id {} удален", userId);
+        try (Journal.Entry entry = journal.begin()) {
+            User user = users.remove(userId);
+            if (user == null) {
+                throw new NotFoundException("Пользователь не существует");
+            }
+            userIds.remove(userId);
+            userIdsByEmail.remove(normalizeEmail(user.getEmail()), userId);
+            entry.append(JournalRecord.userDeleted(userId));
+        }
+        log.debug("Пользователь с id {} удален", userId);
     }
 
     @Override
-    public User getUserById(Long userId) {
-        if (!users.containsKey(userId)) {
-            log.warn("Пользователь с id {} не существует", userId);
-            throw new NotFoundException("Пользователь не существует");
-        }
-        return users.get(userId);
+    public Optional<User> findUserById(Long userId) {
+        return Optional.ofNullable(users.get(userId));
     }
 
     @Override
-    public List<User> getAllUsers() {
-        log.info("Возвращен список всех пользователей");
-        return new ArrayList<>(users.values());
+    public List<User> getAllUsers(long after, int size) {
+        log.debug("Возвращен список пользователей после id {}", after);
+        return userIds.tailSet(after, false).stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .limit(size)
+                .collect(Collectors.toList());
     }
 
-    private void checkUniqueEmail(String email) {
-        for (User user : users.values()) {
-            if (user.getEmail().equals(email)) {
-                log.warn("Электронный адрес {} уже существует", user.getEmail());
-                throw new ConflictingException("Пользователь с указанной электронной почтой уже создан.");
-            }
+    public void restore(Collection<User> restoredUsers) {
+        for (User user : restoredUsers) {
+            put(user);
+            userIdsByEmail.put(normalizeEmail(user.getEmail()), user.getId());
+        }
+    }
+
+    public void forEachUser(Consumer<User> action) {
+        users.values().forEach(action);
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    private void put(User user) {
+        users.put(user.getId(), user);
+        userIds.add(user.getId());
+    }
+
+    /**
+     * Резервирует адрес за пользователем; возвращает false, если адрес уже был закреплен за ним же.
+     */
+    private boolean reserveEmail(String email, long userId) {
+        Long ownerId = userIdsByEmail.putIfAbsent(normalizeEmail(email), userId);
+        if (ownerId != null && (ownerId != userId || userId == UNASSIGNED_ID)) {
+            log.warn("Электронный адрес {} уже существует", email);
+            throw new ConflictingException("Пользователь с указанной электронной почтой уже создан.");
         }
+        return ownerId == null;
     }
 
-    private void checkUserId(long id) {
-        if (getUserById(id) == null) {
-            log.warn("Пользователя с id {} не существует", id);
-            throw new NotFoundException("Пользователь не существует");
+    /**
+     * Снимает резерв неудавшейся замены или прежний адрес после замены. Адрес остается за пользователем,
+     * если это его текущий адрес, например записанный параллельным изменением того же пользователя.
+     */
+    private void releaseEmail(String email, long userId) {
+        if (email == null) {
+            return;
         }
+        User user = users.get(userId);
+        if (user == null || !email.equals(normalizeEmail(user.getEmail()))) {
+            userIdsByEmail.remove(email, userId);
+        }
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
     }
 
     private void checkEmail(User user) {
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.batch.BatchResult;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -7,11 +8,13 @@ import java.util.List;
 public interface UserService {
     User createUser(User user);
 
+    List<BatchResult<User>> createUsers(List<User> users);
+
     User updateUser(Long userId, User updateUser);
 
     void deleteUser(Long userId);
 
     User getUserById(Long userId);
 
-    List<User> getAllUsers();
+    List<User> getAllUsers(long after, int size);
 }
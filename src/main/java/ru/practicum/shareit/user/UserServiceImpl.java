@@ -1,7 +1,11 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.batch.BatchResult;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -9,11 +13,16 @@ import java.util.List;
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -21,6 +30,14 @@ public class UserServiceImpl implements UserService {
         return userRepository.createUser(user);
     }
 
+    @Override
+    public List<BatchResult<User>> createUsers(List<User> users) {
+        if (users.isEmpty() || users.size() > MAX_BATCH_SIZE) {
+            throw new IncorrectRequestException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " пользователей");
+        }
+        return userRepository.createUsers(users);
+    }
+
     @Override
     public User updateUser(Long userId, User updateUser) {
         return userRepository.updateUser(userId, updateUser);
@@ -29,15 +46,24 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Long userId) {
         userRepository.deleteUser(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
     }
 
     @Override
     public User getUserById(Long userId) {
-        return userRepository.getUserById(userId);
+        return userRepository.findUserById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не существует"));
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.getAllUsers();
+    public List<User> getAllUsers(long after, int size) {
+        checkPage(after, size);
+        return userRepository.getAllUsers(after, size);
+    }
+
+    private static void checkPage(long after, int size) {
+        if (after < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IncorrectRequestException("Некорректные параметры страницы: размер от 1 до " + MAX_PAGE_SIZE);
+        }
     }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.user.model.User;
+
+@Value
+public class UserUpdatedEvent implements DomainEvent {
+
+    User oldUser;
+    User newUser;
+}
@@ -1,13 +1,25 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
+import lombok.With;
+import ru.practicum.shareit.etag.VersionTag;
 
-@Data
+/**
+ * Неизменяемый пользователь: изменения создают новый экземпляр через with-методы и увеличивают версию.
+ * В переданном на изменение образце версия {@link VersionTag#ANY_VERSION} означает изменение без проверки версии.
+ */
+@Value
+@With
 @AllArgsConstructor
 public class User {
 
-    private long id;
-    private String name;
-    private String email;
-}
\ No newline at end of file
+    long id;
+    String name;
+    String email;
+    long version;
+
+    public User(long id, String name, String email) {
+        this(id, name, email, VersionTag.ANY_VERSION);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.model;
+
+import lombok.Value;
+
+/**
+ * Пользователь из заголовка X-Sharer-User-Id, существование которого уже проверено при разборе запроса.
+ */
+@Value
+public class UserPrincipal {
+
+    long id;
+}
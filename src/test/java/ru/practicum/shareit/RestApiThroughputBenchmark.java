@@ -0,0 +1,130 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Пропускная способность основных эндпоинтов REST API через весь стек Spring MVC без сетевого слоя.
+ * Перед прогоном создаются {@code users} пользователей, у каждого по {@value #ITEMS_PER_USER} вещей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestApiThroughputBenchmark {
+
+    private static final String USER_ID_IN_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS_PER_USER = 10;
+
+    @Param({"1000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .properties("server.port=0", "logging.level.ru.practicum=WARN")
+                .run();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        for (int user = 1; user <= users; user++) {
+            createUser();
+            StringBuilder items = new StringBuilder("[");
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                items.append(i == 0 ? "" : ",")
+                        .append("{\"name\": \"Дрель ").append(i)
+                        .append("\", \"description\": \"Простая дрель\", \"available\": true}");
+            }
+            mockMvc.perform(post("/items/batch")
+                    .header(USER_ID_IN_HEADER, user)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(items.append("]").toString()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult createUser() throws Exception {
+        return mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"user\", \"email\": \"user" + emailSequence.incrementAndGet()
+                                + "@mail.ru\"}"))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getUserById() throws Exception {
+        return mockMvc.perform(get("/users/{id}", randomUser())).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getAllUsers() throws Exception {
+        return mockMvc.perform(get("/users").param("after", String.valueOf(randomUser()))).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createItem() throws Exception {
+        return mockMvc.perform(post("/items")
+                        .header(USER_ID_IN_HEADER, randomUser())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Отвертка\", \"description\": \"Аккумуляторная отвертка\", "
+                                + "\"available\": true}"))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getItemById() throws Exception {
+        long itemId = ThreadLocalRandom.current().nextLong(1, (long) users * ITEMS_PER_USER + 1);
+        return mockMvc.perform(get("/items/{itemId}", itemId)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getItemsOfUser() throws Exception {
+        return mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, randomUser())).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult searchItems() throws Exception {
+        return mockMvc.perform(get("/items/search").param("text", "дрель 5")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getRequestsOfOthers() throws Exception {
+        return mockMvc.perform(get("/requests/all").header(USER_ID_IN_HEADER, randomUser())).andReturn();
+    }
+
+    private long randomUser() {
+        return ThreadLocalRandom.current().nextLong(1, users + 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RestApiThroughputBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность встроенного Tomcat при числе одновременных клиентов, заметно превышающем пул
+ * потоков, в режиме пула и в режиме виртуальных потоков. Хранилище — JDBC (профиль db на H2), чтобы
+ * обработчики блокировались на запросах к базе. На JVM без виртуальных потоков оба режима совпадают.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(128)
+@Fork(1)
+public class ServerConcurrencyBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int TOMCAT_THREADS = 16;
+
+    @Param({"false", "true"})
+    private String virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("db", "test")
+                .properties("server.port=0", "logging.level.ru.practicum=WARN",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "shareit.server.virtual-threads=" + virtualThreads)
+                .run();
+        baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        for (int i = 0; i < USERS; i++) {
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"name\": \"user\", \"email\": \"user" + i + "@mail.ru\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUserById() throws IOException, InterruptedException {
+        long userId = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users/" + userId)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int getItemsOfUser() throws IOException, InterruptedException {
+        long userId = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/items"))
+                        .header("X-Sharer-User-Id", String.valueOf(userId))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ServerConcurrencyBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
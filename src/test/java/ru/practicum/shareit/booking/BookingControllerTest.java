@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.user.UserPrincipalArgumentResolver.USER_ID_IN_HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void bookingWithoutItemIsBadRequest() throws Exception {
+        long bookerId = userService.createUser(new User(0, "booker", "booking-booker@mail.ru")).getId();
+
+        mockMvc.perform(post("/bookings")
+                        .header(USER_ID_IN_HEADER, bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(post("/bookings")
+                        .header(USER_ID_IN_HEADER, bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":-1,\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
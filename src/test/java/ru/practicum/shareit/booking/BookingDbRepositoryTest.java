@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles({"test", "db"})
+class BookingDbRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void storesReviewsAndPagesBookingsByState() {
+        assertInstanceOf(BookingDbRepository.class, bookingRepository);
+        long ownerId = userRepository.createUser(new User(0, "owner", "booking-owner@mail.ru")).getId();
+        long bookerId = userRepository.createUser(new User(0, "booker", "booking-booker@mail.ru")).getId();
+        long itemId = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), ownerId)
+                .getId();
+        Booking past = bookingRepository.approveBooking(create(itemId, bookerId, ownerId, -5, -4).getId());
+        Booking current = bookingRepository.approveBooking(create(itemId, bookerId, ownerId, -1, 1).getId());
+        Booking future = create(itemId, bookerId, ownerId, 2, 3);
+        Booking rejected = bookingRepository.rejectBooking(create(itemId, bookerId, ownerId, 4, 5).getId());
+        Booking overlapping = create(itemId, bookerId, ownerId, 0, 2);
+
+        assertEquals(current, bookingRepository.findBookingById(current.getId()).orElseThrow());
+        assertThrows(ConflictingException.class, () -> bookingRepository.approveBooking(overlapping.getId()));
+        assertThrows(IncorrectRequestException.class, () -> bookingRepository.rejectBooking(rejected.getId()));
+        assertEquals(List.of(rejected, future, overlapping, current, past),
+                bookingRepository.getBookingsByOwner(ownerId, BookingState.ALL, NOW, 0, 10));
+        assertEquals(List.of(overlapping, current),
+                bookingRepository.getBookingsByBooker(bookerId, BookingState.ALL, NOW, future.getId(), 2));
+        assertEquals(List.of(past), bookingRepository.getBookingsByBooker(bookerId, BookingState.PAST, NOW, 0, 10));
+        assertEquals(List.of(overlapping, current),
+                bookingRepository.getBookingsByBooker(bookerId, BookingState.CURRENT, NOW, 0, 10));
+        assertEquals(List.of(rejected, future),
+                bookingRepository.getBookingsByOwner(ownerId, BookingState.FUTURE, NOW, 0, 10));
+        assertEquals(List.of(future, overlapping),
+                bookingRepository.getBookingsByOwner(ownerId, BookingState.WAITING, NOW, 0, 10));
+        assertEquals(List.of(rejected),
+                bookingRepository.getBookingsByOwner(ownerId, BookingState.REJECTED, NOW, 0, 10));
+        assertTrue(bookingRepository.getBookingsByOwner(bookerId, BookingState.ALL, NOW, 0, 10).isEmpty());
+        assertEquals(current, bookingRepository.getLastBooking(itemId, NOW));
+        assertNull(bookingRepository.getNextBooking(itemId, NOW));
+        assertTrue(bookingRepository.hasApprovedOverlap(itemId, NOW, NOW.plusDays(2)));
+    }
+
+    private Booking create(long itemId, long bookerId, long ownerId, int startDays, int endDays) {
+        return bookingRepository.createBooking(new Booking(0, NOW.plusDays(startDays), NOW.plusDays(endDays),
+                itemId, bookerId, Status.WAITING), ownerId);
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.storage.Journal;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingRepositoryImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 10, 12, 0);
+    private static final long ITEM_ID = 1;
+    private static final long OWNER_ID = 10;
+    private static final long BOOKER_ID = 20;
+
+    private BookingRepositoryImpl bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = new BookingRepositoryImpl(new GeneratorBookingId(), Journal.NOOP);
+    }
+
+    @Test
+    void createsWaitingBookingVisibleToBookerAndOwner() {
+        Booking booking = create(1, 2);
+
+        assertTrue(booking.getId() > 0);
+        assertEquals(Status.WAITING, booking.getStatus());
+        assertEquals(booking, bookingRepository.findBookingById(booking.getId()).orElseThrow());
+        assertEquals(List.of(booking), bookingRepository.getBookingsByBooker(BOOKER_ID, BookingState.ALL, NOW, 0, 10));
+        assertEquals(List.of(booking), bookingRepository.getBookingsByOwner(OWNER_ID, BookingState.ALL, NOW, 0, 10));
+        assertTrue(bookingRepository.getBookingsByOwner(BOOKER_ID, BookingState.ALL, NOW, 0, 10).isEmpty());
+    }
+
+    @Test
+    void approvingOverlappingBookingConflicts() {
+        Booking first = create(1, 3);
+        Booking overlapping = create(2, 4);
+        Booking adjacent = create(3, 5);
+
+        assertEquals(Status.APPROVED, bookingRepository.approveBooking(first.getId()).getStatus());
+
+        assertThrows(ConflictingException.class, () -> bookingRepository.approveBooking(overlapping.getId()));
+        assertEquals(Status.WAITING, bookingRepository.findBookingById(overlapping.getId()).orElseThrow().getStatus());
+        assertTrue(bookingRepository.hasApprovedOverlap(ITEM_ID, at(2), at(4)));
+        assertFalse(bookingRepository.hasApprovedOverlap(ITEM_ID, at(3), at(4)));
+        assertEquals(Status.APPROVED, bookingRepository.approveBooking(adjacent.getId()).getStatus());
+    }
+
+    @Test
+    void rejectedBookingCannotBeReviewedAgain() {
+        Booking booking = create(1, 2);
+
+        Booking rejected = bookingRepository.rejectBooking(booking.getId());
+
+        assertEquals(Status.REJECTED, rejected.getStatus());
+        assertEquals(Status.WAITING, booking.getStatus());
+        assertEquals(rejected, bookingRepository.findBookingById(booking.getId()).orElseThrow());
+        assertEquals(List.of(rejected),
+                bookingRepository.getBookingsByBooker(BOOKER_ID, BookingState.REJECTED, NOW, 0, 10));
+        assertThrows(IncorrectRequestException.class, () -> bookingRepository.approveBooking(booking.getId()));
+        assertThrows(IncorrectRequestException.class, () -> bookingRepository.rejectBooking(booking.getId()));
+        assertFalse(bookingRepository.hasApprovedOverlap(ITEM_ID, at(1), at(2)));
+    }
+
+    @Test
+    void filtersBookingsByState() {
+        Booking past = bookingRepository.approveBooking(create(-5, -4).getId());
+        Booking current = bookingRepository.approveBooking(create(-1, 1).getId());
+        Booking future = create(2, 3);
+        Booking rejected = bookingRepository.rejectBooking(create(4, 5).getId());
+
+        assertEquals(List.of(rejected, future, current, past), byBooker(BookingState.ALL));
+        assertEquals(List.of(past), byBooker(BookingState.PAST));
+        assertEquals(List.of(current), byBooker(BookingState.CURRENT));
+        assertEquals(List.of(rejected, future), byBooker(BookingState.FUTURE));
+        assertEquals(List.of(future), byBooker(BookingState.WAITING));
+        assertEquals(List.of(rejected), byBooker(BookingState.REJECTED));
+        assertEquals(List.of(rejected, future),
+                bookingRepository.getBookingsByOwner(OWNER_ID, BookingState.FUTURE, NOW, 0, 10));
+    }
+
+    @Test
+    void pagesNewestFirstAfterTheLastBookingOfPreviousPage() {
+        List<Booking> created = new ArrayList<>();
+        for (int day = 1; day <= 5; day++) {
+            created.add(create(day * 10, day * 10 + 1));
+        }
+
+        List<LocalDateTime> starts = bookingRepository.getBookingsByBooker(BOOKER_ID, BookingState.ALL, NOW,
+                        created.get(4).getId(), 3)
+                .stream()
+                .map(Booking::getStart)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(at(40), at(30), at(20)), starts);
+        assertEquals(List.of(created.get(0)), bookingRepository.getBookingsByOwner(OWNER_ID, BookingState.ALL, NOW,
+                created.get(1).getId(), 3));
+        assertTrue(bookingRepository.getBookingsByOwner(OWNER_ID, BookingState.ALL, NOW, created.get(0).getId(), 3)
+                .isEmpty());
+        assertThrows(IncorrectRequestException.class,
+                () -> bookingRepository.getBookingsByOwner(OWNER_ID, BookingState.ALL, NOW, 100, 3));
+    }
+
+    @Test
+    void nextPageIsNotShiftedByChangesBeforeItsCursor() {
+        Booking third = create(30, 31);
+        Booking second = create(20, 21);
+        Booking first = create(10, 11);
+
+        List<Booking> firstPage = bookingRepository.getBookingsByOwner(OWNER_ID, BookingState.WAITING, NOW, 0, 2);
+        bookingRepository.rejectBooking(third.getId());
+        create(40, 41);
+
+        assertEquals(List.of(third, second), firstPage);
+        assertEquals(List.of(first), bookingRepository.getBookingsByOwner(OWNER_ID, BookingState.WAITING, NOW,
+                second.getId(), 2));
+    }
+
+    @Test
+    void pagesWaitingAndRejectedBookingsOfOwnerAfterReview() {
+        List<Booking> created = new ArrayList<>();
+        for (int day = 1; day <= 6; day++) {
+            Booking booking = create(day * 10, day * 10 + 1);
+            created.add(booking);
+            if (day % 3 == 0) {
+                bookingRepository.rejectBooking(booking.getId());
+            } else if (day % 3 == 1) {
+                bookingRepository.approveBooking(booking.getId());
+            }
+        }
+
+        assertEquals(List.of(at(50), at(20)), startsOfOwner(BookingState.WAITING, 0, 10));
+        assertEquals(List.of(at(30)), startsOfOwner(BookingState.REJECTED, created.get(5).getId(), 10));
+        assertEquals(List.of(at(60)), startsOfOwner(BookingState.REJECTED, 0, 1));
+    }
+
+    @Test
+    void movesEndedBookingsFromCurrentToPastAsTimeAdvances() {
+        Booking longer = create(-3, 5);
+        Booking shorter = create(-2, 1);
+        Booking ended = create(-4, -1);
+
+        assertEquals(List.of(shorter, longer), byBooker(BookingState.CURRENT));
+        assertEquals(List.of(ended), byBooker(BookingState.PAST));
+
+        LocalDateTime later = at(2);
+        assertEquals(List.of(longer),
+                bookingRepository.getBookingsByBooker(BOOKER_ID, BookingState.CURRENT, later, 0, 10));
+        assertEquals(List.of(shorter, ended),
+                bookingRepository.getBookingsByOwner(OWNER_ID, BookingState.PAST, later, 0, 10));
+        assertEquals(List.of(ended),
+                bookingRepository.getBookingsByBooker(BOOKER_ID, BookingState.PAST, later, shorter.getId(), 10));
+        assertTrue(bookingRepository.getBookingsByBooker(BOOKER_ID, BookingState.PAST, later, ended.getId(), 10)
+                .isEmpty());
+        assertEquals(List.of(shorter, longer), byBooker(BookingState.CURRENT));
+        assertEquals(List.of(ended), byBooker(BookingState.PAST));
+    }
+
+    @Test
+    void findsLastAndNextApprovedBookings() {
+        assertNull(bookingRepository.getLastBooking(ITEM_ID, NOW));
+        Booking last = bookingRepository.approveBooking(create(-3, -2).getId());
+        bookingRepository.approveBooking(create(-6, -5).getId());
+        Booking next = bookingRepository.approveBooking(create(2, 3).getId());
+        create(1, 2);
+
+        assertEquals(last, bookingRepository.getLastBooking(ITEM_ID, NOW));
+        assertEquals(next, bookingRepository.getNextBooking(ITEM_ID, NOW));
+        assertNull(bookingRepository.getNextBooking(ITEM_ID, at(4)));
+    }
+
+    private List<Booking> byBooker(BookingState state) {
+        return bookingRepository.getBookingsByBooker(BOOKER_ID, state, NOW, 0, 10);
+    }
+
+    private Booking create(int startDays, int endDays) {
+        return bookingRepository.createBooking(
+                new Booking(0, at(startDays), at(endDays), ITEM_ID, BOOKER_ID, Status.WAITING), OWNER_ID);
+    }
+
+    private static LocalDateTime at(int days) {
+        return NOW.plusDays(days);
+    }
+
+    private List<LocalDateTime> startsOfOwner(BookingState state, long after, int size) {
+        return bookingRepository.getBookingsByOwner(OWNER_ID, state, NOW, after, size).stream()
+                .map(Booking::getStart)
+                .collect(Collectors.toList());
+    }
+}
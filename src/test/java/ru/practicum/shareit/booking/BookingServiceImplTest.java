@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingServiceImplTest {
+
+    private static final UserPrincipal OWNER = new UserPrincipal(1);
+    private static final UserPrincipal BOOKER = new UserPrincipal(2);
+    private static final UserPrincipal STRANGER = new UserPrincipal(3);
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        ItemService itemService = mock(ItemService.class);
+        when(itemService.getItemById(1L)).thenReturn(new Item(1, "Дрель", "Простая дрель", true, 1, null));
+        when(itemService.getItemById(2L)).thenReturn(new Item(2, "Пила", "Сломанная пила", false, 1, null));
+        bookingService = new BookingServiceImpl(new BookingRepositoryImpl(new GeneratorBookingId(), Journal.NOOP), itemService);
+    }
+
+    @Test
+    void bookingIsVisibleOnlyToBookerAndOwner() {
+        Booking booking = bookingService.createBooking(newBooking(1, BOOKER, 1, 2), BOOKER);
+
+        assertEquals(booking, bookingService.getBookingById(booking.getId(), BOOKER));
+        assertEquals(booking, bookingService.getBookingById(booking.getId(), OWNER));
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingById(booking.getId(), STRANGER));
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingById(booking.getId() + 1, BOOKER));
+        assertThrows(NotFoundException.class, () -> bookingService.reviewBooking(booking.getId(), BOOKER, true));
+    }
+
+    @Test
+    void rejectsBookingsOfOwnOrUnavailableItemsAndBadPeriods() {
+        assertThrows(NotFoundException.class, () -> bookingService.createBooking(newBooking(1, OWNER, 1, 2), OWNER));
+        assertThrows(IncorrectRequestException.class,
+                () -> bookingService.createBooking(newBooking(2, BOOKER, 1, 2), BOOKER));
+        assertThrows(IncorrectRequestException.class,
+                () -> bookingService.createBooking(newBooking(1, BOOKER, 2, 1), BOOKER));
+        assertThrows(IncorrectRequestException.class,
+                () -> bookingService.createBooking(newBooking(1, BOOKER, -2, 1), BOOKER));
+        assertThrows(IncorrectRequestException.class,
+                () -> bookingService.getBookingsByBooker(BOOKER, "SOMETIMES", 0, 10));
+    }
+
+    @Test
+    void rejectsPagesOutsideSizeBounds() {
+        assertThrows(IncorrectRequestException.class, () -> bookingService.getBookingsByBooker(BOOKER, "ALL", -1, 10));
+        assertThrows(IncorrectRequestException.class, () -> bookingService.getBookingsByBooker(BOOKER, "ALL", 0, 0));
+        assertThrows(IncorrectRequestException.class, () -> bookingService.getBookingsByOwner(OWNER, "ALL", 0, 1001));
+        assertTrue(bookingService.getBookingsByOwner(OWNER, "ALL", 0, 1000).isEmpty());
+    }
+
+    @Test
+    void ownerReviewsBookingAndOverlapsConflict() {
+        Booking first = bookingService.createBooking(newBooking(1, BOOKER, 1, 3), BOOKER);
+        Booking second = bookingService.createBooking(newBooking(1, STRANGER, 2, 4), STRANGER);
+
+        assertEquals(Status.APPROVED, bookingService.reviewBooking(first.getId(), OWNER, true).getStatus());
+
+        assertThrows(ConflictingException.class, () -> bookingService.reviewBooking(second.getId(), OWNER, true));
+        assertThrows(ConflictingException.class,
+                () -> bookingService.createBooking(newBooking(1, STRANGER, 2, 4), STRANGER));
+        assertEquals(Status.REJECTED, bookingService.reviewBooking(second.getId(), OWNER, false).getStatus());
+    }
+
+    private static Booking newBooking(long itemId, UserPrincipal booker, int startDays, int endDays) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Booking(0, now.plusDays(startDays), now.plusDays(endDays), itemId, booker.getId(),
+                Status.WAITING);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.etag;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionTagTest {
+
+    @Test
+    void missingOrWildcardTagMatchesAnyVersion() {
+        assertEquals(VersionTag.ANY_VERSION, VersionTag.parseIfMatch(null, 7));
+        assertEquals(VersionTag.ANY_VERSION, VersionTag.parseIfMatch(" ", 7));
+        assertEquals(VersionTag.ANY_VERSION, VersionTag.parseIfMatch(" * ", 7));
+    }
+
+    @Test
+    void strongTagOfSameEntityGivesItsVersion() {
+        assertEquals("\"7-3\"", VersionTag.format(7, 3));
+        assertEquals(3, VersionTag.parseIfMatch(VersionTag.format(7, 3), 7));
+        assertEquals(12, VersionTag.parseIfMatch(" \"7-12\" ", 7));
+    }
+
+    @Test
+    void weakForeignAndGarbageTagsNeverMatch() {
+        for (String tag : new String[]{"W/\"7-3\"", "\"8-3\"", "\"77-3\"", "\"7-\"", "\"7-0\"", "\"7--1\"",
+                "\"7-x\"", "7-3", "\"7-3", "\"7-99999999999999999999\""}) {
+            assertThrows(PreconditionFailedException.class, () -> VersionTag.parseIfMatch(tag, 7), tag);
+        }
+    }
+}
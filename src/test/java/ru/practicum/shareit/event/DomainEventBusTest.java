@@ -0,0 +1,169 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainEventBusTest {
+
+    private DomainEventBus eventBus;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        eventBus.destroy();
+    }
+
+    @Test
+    void blockingBusDeliversEveryEventInOrderToEachConsumer() throws Exception {
+        eventBus = new DomainEventBus(8, 4, BackpressurePolicy.BLOCK);
+        List<Long> fast = new ArrayList<>();
+        List<Long> slow = new ArrayList<>();
+        AtomicInteger largestBatch = new AtomicInteger();
+        eventBus.subscribe("fast", events -> events.forEach(event -> fast.add(((TestEvent) event).id)));
+        eventBus.subscribe("slow", events -> {
+            largestBatch.accumulateAndGet(events.size(), Math::max);
+            events.forEach(event -> slow.add(((TestEvent) event).id));
+            sleep(1);
+        });
+
+        for (long id = 0; id < 1000; id++) {
+            assertTrue(eventBus.publish(new TestEvent(id)));
+        }
+        eventBus.destroy();
+
+        List<Long> expected = new ArrayList<>();
+        for (long id = 0; id < 1000; id++) {
+            expected.add(id);
+        }
+        assertEquals(expected, fast);
+        assertEquals(expected, slow);
+        assertEquals(4, largestBatch.get());
+    }
+
+    @Test
+    void droppingBusRejectsEventsWhenConsumerLagsByWholeBuffer() throws Exception {
+        eventBus = new DomainEventBus(4, 4, BackpressurePolicy.DROP);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger overflows = new AtomicInteger();
+        DomainEventBus.Subscription subscription = eventBus.subscribe("stuck", new DomainEventHandler() {
+            @Override
+            public void onEvents(List<DomainEvent> events) {
+                await(release);
+            }
+
+            @Override
+            public void onOverflow() {
+                overflows.incrementAndGet();
+            }
+        });
+
+        int published = 0;
+        for (long id = 0; id < 10; id++) {
+            published += eventBus.publish(new TestEvent(id)) ? 1 : 0;
+        }
+        assertEquals(4, published);
+        assertEquals(10 - published, overflows.get());
+        assertFalse(subscription.isCaughtUp());
+
+        release.countDown();
+        for (int i = 0; i < 100 && !subscription.isCaughtUp(); i++) {
+            sleep(10);
+        }
+        assertEquals(0, subscription.lag());
+    }
+
+    @Test
+    void consumerKilledByErrorIsUnsubscribedAndDoesNotBlockPublishers() throws Exception {
+        eventBus = new DomainEventBus(4, 4, BackpressurePolicy.BLOCK);
+        DomainEventBus.Subscription dead = eventBus.subscribe("dead", events -> {
+            throw new AssertionError("сбой обработчика");
+        });
+        List<Long> alive = new ArrayList<>();
+        eventBus.subscribe("alive", events -> events.forEach(event -> alive.add(((TestEvent) event).id)));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (long id = 0; id < 100; id++) {
+                assertTrue(eventBus.publish(new TestEvent(id)));
+            }
+        });
+        eventBus.destroy();
+
+        assertFalse(dead.isCaughtUp());
+        assertEquals(100, alive.size());
+    }
+
+    @Test
+    void consumedEventsAreNotRetainedByBuffer() {
+        eventBus = new DomainEventBus(8, 4, BackpressurePolicy.BLOCK);
+        DomainEventBus.Subscription subscription = eventBus.subscribe("consumer", events -> {
+        });
+        TestEvent event = new TestEvent(1);
+        WeakReference<TestEvent> reference = new WeakReference<>(event);
+        eventBus.publish(event);
+        event = null;
+
+        for (int i = 0; i < 100 && !subscription.isCaughtUp(); i++) {
+            sleep(10);
+        }
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    void cancelledConsumerStopsReceivingAndDoesNotBlockPublishers() throws Exception {
+        eventBus = new DomainEventBus(4, 4, BackpressurePolicy.BLOCK);
+        List<Long> received = new ArrayList<>();
+        DomainEventBus.Subscription subscription = eventBus.subscribe("cancelled",
+                events -> events.forEach(event -> received.add(((TestEvent) event).id)));
+        eventBus.publish(new TestEvent(0));
+        for (int i = 0; i < 100 && !subscription.isCaughtUp(); i++) {
+            sleep(10);
+        }
+
+        subscription.cancel();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (long id = 1; id < 100; id++) {
+                assertTrue(eventBus.publish(new TestEvent(id)));
+            }
+        });
+
+        assertEquals(List.of(0L), received);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class TestEvent implements DomainEvent {
+
+        private final long id;
+
+        private TestEvent(long id) {
+            this.id = id;
+        }
+    }
+}
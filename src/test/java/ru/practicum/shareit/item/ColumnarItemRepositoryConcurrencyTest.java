@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item;
+
+class ColumnarItemRepositoryConcurrencyTest extends ItemRepositoryConcurrencyTest {
+
+    @Override
+    ItemStore createStore() {
+        return new ColumnarItemStore();
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item;
+
+class ColumnarStoreScanConcurrencyTest extends ColumnarItemRepositoryConcurrencyTest {
+
+    @Override
+    boolean searchIndexEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Время обработки запросов к /items через весь стек Spring MVC без сетевого слоя, включая ответы 404
+ * на несуществующие вещи и пользователей.
+ * Для сравнения «до/после» бенчмарк запускается на обеих ревизиях.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemControllerBenchmark {
+
+    private static final String USER_ID_IN_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 1_000;
+
+    @Param({"1.0", "0.01"})
+    private String sampleRate;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .properties("server.port=0", "logging.level.ru.practicum=WARN",
+                        "shareit.metrics.sample-rate=" + sampleRate)
+                .run();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"owner\", \"email\": \"owner@mail.ru\"}"));
+        for (int i = 0; i < ITEMS; i++) {
+            mockMvc.perform(post("/items")
+                    .header(USER_ID_IN_HEADER, 1)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true}"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult patchItem() throws Exception {
+        long itemId = ThreadLocalRandom.current().nextLong(1, ITEMS + 1);
+        return mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header(USER_ID_IN_HEADER, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": \"Аккумуляторная дрель\"}"))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getItemById() throws Exception {
+        long itemId = ThreadLocalRandom.current().nextLong(1, ITEMS + 1);
+        return mockMvc.perform(get("/items/{itemId}", itemId)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getMissingItem() throws Exception {
+        long itemId = ThreadLocalRandom.current().nextLong(ITEMS + 1, 2 * ITEMS);
+        return mockMvc.perform(get("/items/{itemId}", itemId)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getItemsOfMissingUser() throws Exception {
+        long userId = ThreadLocalRandom.current().nextLong(2, ITEMS);
+        return mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, userId)).andReturn();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemControllerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
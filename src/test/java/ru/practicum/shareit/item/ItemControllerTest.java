@@ -0,0 +1,250 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.user.UserPrincipalArgumentResolver.USER_ID_IN_HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UserPrincipal owner;
+    private String word;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        owner = new UserPrincipal(userService.createUser(new User(0, "owner", suffix + "@mail.ru")).getId());
+        word = "слово" + suffix.substring(0, 8);
+    }
+
+    @Test
+    void pagesItemsOfOwnerAndSearchByCursor() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(itemService.createItem(new Item(0, "Дрель " + i, "Дрель " + word, true, 0, null), owner).getId());
+        }
+
+        mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, owner.getId())
+                        .param("after", ids.get(0).toString()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(ids.get(1).intValue(), ids.get(2).intValue())));
+        mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, owner.getId())
+                        .param("after", ids.get(3).toString()).param("size", "2"))
+                .andExpect(jsonPath("$[*].id").value(contains(ids.get(4).intValue())));
+        mockMvc.perform(get("/items/search").param("text", word)
+                        .param("after", ids.get(2).toString()).param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(ids.get(3).intValue(), ids.get(4).intValue())));
+        mockMvc.perform(get("/items/search").param("text", word).param("after", ids.get(4).toString()))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/items/search").param("text", " " + word + " ")
+                        .param("after", ids.get(3).toString()))
+                .andExpect(jsonPath("$[*].id").value(contains(ids.get(4).intValue())));
+    }
+
+    @Test
+    void rejectsMissingMalformedAndUnknownSharerId() throws Exception {
+        String item = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}";
+
+        mockMvc.perform(get("/items"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, "abc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/items").header(USER_ID_IN_HEADER, "abc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(item))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/items").header(USER_ID_IN_HEADER, Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(item))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamsAllItemsOfOwnerAcrossPagesAsNdjson() throws Exception {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            items.add(new Item(0, "Дрель " + i, "Дрель", true, 0, null));
+        }
+        itemService.createItems(items, owner);
+
+        MvcResult started = mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, owner.getId())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(501, lines.length);
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode item = objectMapper.readTree(line);
+            assertTrue(item.get("id").asLong() > previousId);
+            assertEquals(owner.getId(), item.get("ownerId").asLong());
+            previousId = item.get("id").asLong();
+        }
+    }
+
+    @Test
+    void cachedItemIsEvictedOnUpdateAndOwnerDeletion() throws Exception {
+        long itemId = itemService.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), owner).getId();
+        mockMvc.perform(get("/items/{itemId}", itemId))
+                .andExpect(jsonPath("$.name").value("Дрель"));
+
+        mockMvc.perform(patch("/items/{itemId}", itemId).header(USER_ID_IN_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Отвертка\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/items/{itemId}", itemId))
+                .andExpect(jsonPath("$.name").value("Отвертка"));
+
+        mockMvc.perform(delete("/users/{userId}", owner.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/items/{itemId}", itemId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unchangedItemIsNotModified() throws Exception {
+        long itemId = itemService.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), owner).getId();
+        String etag = mockMvc.perform(get("/items/{itemId}", itemId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/items/{itemId}", itemId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        itemService.updateItem(new Item(0, null, "Ударная дрель", null, 0, null), owner, itemId);
+        mockMvc.perform(get("/items/{itemId}", itemId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.description").value("Ударная дрель"));
+    }
+
+    @Test
+    void staleIfMatchIsRejectedAndCurrentOneUpdates() throws Exception {
+        Item item = itemService.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), owner);
+        String etag = mockMvc.perform(get("/items/{itemId}", item.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String newEtag = mockMvc.perform(patch("/items/{itemId}", item.getId())
+                        .header(USER_ID_IN_HEADER, owner.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Отвертка\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(patch("/items/{itemId}", item.getId())
+                        .header(USER_ID_IN_HEADER, owner.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Пила\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/items/{itemId}", item.getId()))
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag))
+                .andExpect(jsonPath("$.name").value("Отвертка"));
+    }
+
+    @Test
+    void rejectsBadPageParameters() throws Exception {
+        for (String[] page : new String[][]{{"-1", "10"}, {"0", "0"}, {"0", "1001"}}) {
+            mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, owner.getId())
+                            .param("after", page[0]).param("size", page[1]))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/items/search").param("text", word)
+                            .param("after", page[0]).param("size", page[1]))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void batchKeepsInputOrderAcrossServiceAndRepositoryFailures() throws Exception {
+        String body = "["
+                + "{\"name\":\"Дрель\",\"description\":\"Дрель\",\"available\":true},"
+                + "{\"name\":\"Пила\",\"description\":\"Пила\",\"available\":true,\"requestId\":" + Long.MAX_VALUE
+                + "},"
+                + "{\"name\":\"Молоток\",\"description\":\"Молоток\"},"
+                + "{\"name\":\"Отвертка\",\"description\":\"Отвертка\",\"available\":true}]";
+
+        String response = mockMvc.perform(post("/items/batch").header(USER_ID_IN_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].index").value(contains(0, 1, 2, 3)))
+                .andExpect(jsonPath("$[*].status").value(contains(200, 404, 400, 200)))
+                .andExpect(jsonPath("$[0].result.name").value("Дрель"))
+                .andExpect(jsonPath("$[1].error").exists())
+                .andExpect(jsonPath("$[2].error").exists())
+                .andExpect(jsonPath("$[3].result.name").value("Отвертка"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        JsonNode results = objectMapper.readTree(response);
+        long firstId = results.get(0).get("result").get("id").asLong();
+        assertEquals(firstId + 1, results.get(3).get("result").get("id").asLong());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() throws Exception {
+        String item = "{\"name\":\"Дрель\",\"description\":\"Дрель\",\"available\":true}";
+        for (int size : new int[]{0, 10_001}) {
+            mockMvc.perform(post("/items/batch").header(USER_ID_IN_HEADER, owner.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + String.join(",", Collections.nCopies(size, item)) + "]"))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/items").header(USER_ID_IN_HEADER, owner.getId()))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
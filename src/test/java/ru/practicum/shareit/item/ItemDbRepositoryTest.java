@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles({"test", "db"})
+class ItemDbRepositoryTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemService itemService;
+
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userRepository.createUser(new User(0, "owner", "owner@mail.ru")).getId();
+    }
+
+    @Test
+    void createsAndUpdatesItemOfOwner() {
+        assertInstanceOf(ItemDbRepository.class, itemRepository);
+        Item item = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), ownerId);
+
+        itemRepository.updateItem(new Item(0, null, "Ударная дрель", false, 0, null), ownerId, item.getId());
+
+        Item saved = itemRepository.findItemById(item.getId()).orElseThrow();
+        assertEquals("Дрель", saved.getName());
+        assertEquals("Ударная дрель", saved.getDescription());
+        assertFalse(saved.getAvailable());
+        assertEquals(List.of(saved), itemRepository.getAllItemsByUser(ownerId, 0, 10));
+        assertThrows(NotFoundException.class, () -> itemRepository.updateItem(
+                new Item(0, "Чужая", null, null, 0, null), ownerId, item.getId() + 1));
+    }
+
+    @Test
+    void conditionalUpdateChecksVersionOfOwnItem() {
+        Item item = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), ownerId);
+        long strangerId = userRepository.createUser(new User(0, "stranger", "stranger@mail.ru")).getId();
+        assertEquals(1, item.getVersion());
+
+        Item updated = itemRepository.updateItem(new Item(0, "Отвертка", null, null, 0, null).withVersion(1),
+                ownerId, item.getId());
+
+        assertEquals(2, updated.getVersion());
+        assertEquals(3, itemRepository.updateItem(new Item(0, "Пила", null, null, 0, null), ownerId, item.getId())
+                .getVersion());
+        assertThrows(PreconditionFailedException.class, () -> itemRepository.updateItem(
+                new Item(0, "Молоток", null, null, 0, null).withVersion(2), ownerId, item.getId()));
+        assertThrows(NotFoundException.class, () -> itemRepository.updateItem(
+                new Item(0, "Молоток", null, null, 0, null).withVersion(2), strangerId, item.getId()));
+        assertThrows(NotFoundException.class, () -> itemRepository.updateItem(
+                new Item(0, "Молоток", null, null, 0, null).withVersion(3), ownerId, item.getId() + 1));
+        assertEquals("Пила", itemRepository.findItemById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void searchesAvailableItemsIgnoringCase() {
+        Item screwdriver = itemRepository.createItem(
+                new Item(0, "Отвертка", "Аккумуляторная ДРЕЛЬ-отвертка", true, 0, null), ownerId);
+        Item drill = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), ownerId);
+        itemRepository.createItem(new Item(0, "Дрель 100%", "Сломанная", false, 0, null), ownerId);
+
+        assertEquals(2, itemRepository.searchItemsByDescription("дРеЛь", 0, 10).size());
+        assertEquals(0, itemRepository.searchItemsByDescription("100%", 0, 10).size());
+        assertEquals(0, itemRepository.searchItemsByDescription("_", 0, 10).size());
+        assertTrue(itemRepository.searchItemsByDescription(" ", 0, 10).isEmpty());
+        assertEquals(List.of(drill, screwdriver), itemRepository.searchItemsRanked("дрель", 10));
+        assertEquals(List.of(drill), itemRepository.searchItemsRanked("дрель", 1));
+    }
+
+    @Test
+    void serviceSearchIgnoresEdgeSpacesOfQuery() {
+        Item drill = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), ownerId);
+
+        assertEquals(List.of(drill), itemService.searchItemsByDescription(" дрель\t", 0, 10));
+        assertEquals(List.of(drill), itemService.searchItemsRanked("  дрель ", 10));
+    }
+
+    @Test
+    void groupsItemsByRequestIds() {
+        Item first = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, 7L), ownerId);
+        Item second = itemRepository.createItem(new Item(0, "Отвертка", "Отвертка", true, 0, 7L), ownerId);
+        itemRepository.createItem(new Item(0, "Пила", "Ручная пила", true, 0, null), ownerId);
+
+        Map<Long, List<Item>> itemsByRequest = itemRepository.getItemsByRequestIds(List.of(7L, 8L));
+
+        assertEquals(Map.of(7L, List.of(first, second)), itemsByRequest);
+        assertTrue(itemRepository.getItemsByRequestIds(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.event.BackpressurePolicy;
+import ru.practicum.shareit.event.DomainEventBus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.storage.Journal;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время операций хранилища вещей в зависимости от его размера. Вещи, созданные в createItem, остаются
+ * в хранилище до конца прогона, поэтому к концу измерения оно немного больше itemCount.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemRepositoryBenchmark {
+
+    private static final int OWNERS = 100;
+    private static final int PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 20;
+    private static final int CACHED_SEARCHES = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int itemCount;
+
+    @Param({"objects", "columnar"})
+    private String layout;
+
+    @Param({"true", "false"})
+    private boolean searchIndex;
+
+    private ItemRepositoryImpl itemRepository;
+    private long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ItemStore store = layout.equals("columnar") ? new ColumnarItemStore() : new ObjectItemStore();
+        DomainEventBus eventBus = new DomainEventBus(1024, 64, BackpressurePolicy.BLOCK);
+        ItemSearchCache searchCache = new ItemSearchCache(1000, eventBus);
+        searchCache.subscribe();
+        itemRepository = new ItemRepositoryImpl(store, new GeneratorItemId(), Journal.NOOP, searchCache, eventBus,
+                searchIndex);
+        for (int i = 0; i < itemCount; i++) {
+            itemRepository.createItem(new Item(0, "Дрель " + i, "Простая дрель " + i, true, 0, null),
+                    (long) (i % OWNERS + 1));
+        }
+        ownerId = OWNERS / 2;
+        for (int i = 0; i < CACHED_SEARCHES; i++) {
+            itemRepository.searchItemsByDescription("дрель " + i, 0, PAGE_SIZE);
+        }
+    }
+
+    @Benchmark
+    public Item createItem() {
+        return itemRepository.createItem(new Item(0, "Отвертка", "Аккумуляторная отвертка", true, 0, null), ownerId);
+    }
+
+    @Benchmark
+    public Item updateItem() {
+        long itemId = ThreadLocalRandom.current().nextLong(1, itemCount + 1);
+        Item patch = new Item(0, null, null, itemId % 2 == 0, 0, null);
+        return itemRepository.updateItem(patch, (itemId - 1) % OWNERS + 1, itemId);
+    }
+
+    @Benchmark
+    public Optional<Item> findItemById() {
+        return itemRepository.findItemById(ThreadLocalRandom.current().nextLong(1, itemCount + 1));
+    }
+
+    @Benchmark
+    public List<Item> getAllItemsByUser() {
+        return itemRepository.getAllItemsByUser(ownerId, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Item> searchItemsByDescription() {
+        return itemRepository.searchItemsByDescription("дрель 99", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Item> searchItemsRanked() {
+        return itemRepository.searchItemsRanked("дрель 99", SEARCH_LIMIT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemRepositoryBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
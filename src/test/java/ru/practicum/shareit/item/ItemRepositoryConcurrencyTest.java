@@ -0,0 +1,221 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.event.BackpressurePolicy;
+import ru.practicum.shareit.event.DomainEventBus;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.GeneratorUserId;
+import ru.practicum.shareit.user.UserRepositoryImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemRepositoryConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ITEMS_PER_THREAD = 2_000;
+
+    private DomainEventBus eventBus;
+    private UserRepositoryImpl userRepository;
+    private ItemRepositoryImpl itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new DomainEventBus(1024, 64, BackpressurePolicy.BLOCK);
+        userRepository = new UserRepositoryImpl(new GeneratorUserId(), Journal.NOOP, eventBus);
+        ItemSearchCache searchCache = new ItemSearchCache(1000, eventBus);
+        searchCache.subscribe();
+        itemRepository = new ItemRepositoryImpl(createStore(), new GeneratorItemId(), Journal.NOOP, searchCache,
+                eventBus, searchIndexEnabled());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        eventBus.destroy();
+    }
+
+    ItemStore createStore() {
+        return new ObjectItemStore();
+    }
+
+    boolean searchIndexEnabled() {
+        return true;
+    }
+
+    @Test
+    void concurrentCreatesProduceUniqueIdsAndLoseNothing() throws Exception {
+        List<Long> userIds = runConcurrently(thread -> {
+            List<Long> ids = new ArrayList<>();
+            ids.add(userRepository.createUser(new User(0, "user" + thread, "user" + thread + "@mail.ru")).getId());
+            return ids;
+        });
+        assertEquals(THREADS, new HashSet<>(userIds).size());
+
+        List<Long> itemIds = runConcurrently(thread -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_THREAD; i++) {
+                Item item = new Item(0, "Дрель", "Дрель номер " + i, true, 0, null);
+                ids.add(itemRepository.createItem(item, userIds.get(thread)).getId());
+            }
+            return ids;
+        });
+
+        assertEquals(THREADS * ITEMS_PER_THREAD, new HashSet<>(itemIds).size());
+        for (Long userId : userIds) {
+            assertEquals(ITEMS_PER_THREAD, itemRepository.getAllItemsByUser(userId, 0, Integer.MAX_VALUE).size());
+        }
+        assertEquals(THREADS * ITEMS_PER_THREAD, itemRepository.searchItemsByDescription("дрель", 0, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void concurrentUpdatesKeepSearchIndexConsistent() throws Exception {
+        long userId = userRepository.createUser(new User(0, "user", "user@mail.ru")).getId();
+        long itemId = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), userId).getId();
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < ITEMS_PER_THREAD; i++) {
+                String name = i % 2 == 0 ? "Отвертка" + thread : "Дрель" + thread;
+                itemRepository.updateItem(new Item(0, name, null, null, 0, null), userId, itemId);
+            }
+            return Collections.emptyList();
+        });
+
+        String name = itemRepository.findItemById(itemId).orElseThrow().getName().toLowerCase();
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (String query : List.of("отвертка" + thread, "дрель" + thread)) {
+                int expected = query.equals(name) ? 1 : 0;
+                assertEquals(expected, itemRepository.searchItemsByDescription(query, 0, Integer.MAX_VALUE).size(), query);
+            }
+        }
+    }
+
+    @Test
+    void concurrentUpdatesOfDifferentFieldsAreNotLost() throws Exception {
+        long userId = userRepository.createUser(new User(0, "user", "user@mail.ru")).getId();
+        Item created = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), userId);
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < ITEMS_PER_THREAD; i++) {
+                Item patch = thread % 2 == 0
+                        ? new Item(0, "Дрель " + thread + "-" + i, null, null, 0, null)
+                        : new Item(0, null, "Дрель " + thread + "-" + i, null, 0, null);
+                itemRepository.updateItem(patch, userId, created.getId());
+            }
+            return Collections.emptyList();
+        });
+
+        Item item = itemRepository.findItemById(created.getId()).orElseThrow();
+        assertTrue(item.getName().endsWith("-" + (ITEMS_PER_THREAD - 1)), item.getName());
+        assertTrue(item.getDescription().endsWith("-" + (ITEMS_PER_THREAD - 1)), item.getDescription());
+        assertEquals("Простая дрель", created.getDescription());
+    }
+
+    @Test
+    void conditionalUpdatesOfOneVersionSucceedOnce() throws Exception {
+        long userId = userRepository.createUser(new User(0, "user", "user@mail.ru")).getId();
+        Item created = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), userId);
+
+        List<Long> succeeded = runConcurrently(thread -> {
+            Item patch = new Item(0, "Дрель " + thread, null, null, 0, null).withVersion(created.getVersion());
+            try {
+                itemRepository.updateItem(patch, userId, created.getId());
+                return List.of((long) thread);
+            } catch (PreconditionFailedException e) {
+                return Collections.emptyList();
+            }
+        });
+
+        assertEquals(1, succeeded.size());
+        Item item = itemRepository.findItemById(created.getId()).orElseThrow();
+        assertEquals("Дрель " + succeeded.get(0), item.getName());
+        assertEquals(created.getVersion() + 1, item.getVersion());
+    }
+
+    @Test
+    void removedOwnerItemsAreHiddenWhileBatchesRun() throws Exception {
+        long ownerId = userRepository.createUser(new User(0, "owner", "owner@mail.ru")).getId();
+        long otherId = userRepository.createUser(new User(0, "other", "other@mail.ru")).getId();
+        long itemId = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), ownerId).getId();
+        for (int i = 1; i < ITEMS_PER_THREAD; i++) {
+            itemRepository.createItem(new Item(0, "Дрель", "Дрель номер " + i, true, 0, null), ownerId);
+        }
+        itemRepository.createItem(new Item(0, "Дрель", "Чужая дрель", true, 0, null), otherId);
+
+        itemRepository.markOwnerRemoved(ownerId);
+        List<Long> removedIds = itemRepository.removeItemsOfOwner(ownerId, 500);
+
+        assertEquals(500, removedIds.size());
+        assertTrue(itemRepository.isOwnerRemoved(ownerId));
+        assertTrue(itemRepository.findItemById(itemId + ITEMS_PER_THREAD - 1).isEmpty());
+        assertTrue(itemRepository.getAllItemsByUser(ownerId, 0, Integer.MAX_VALUE).isEmpty());
+        assertEquals(1, itemRepository.searchItemsByDescription("дрель", 0, Integer.MAX_VALUE).size());
+
+        List<Long> batches = runConcurrently(thread -> itemRepository.removeItemsOfOwner(ownerId, 100));
+        while (!(removedIds = itemRepository.removeItemsOfOwner(ownerId, 100)).isEmpty()) {
+            batches.addAll(removedIds);
+        }
+        assertEquals(ITEMS_PER_THREAD - 500, new HashSet<>(batches).size());
+        assertFalse(itemRepository.isOwnerRemoved(ownerId));
+    }
+
+    @Test
+    void removedOwnerWithoutItemsIsForgotten() {
+        long ownerId = userRepository.createUser(new User(0, "owner", "owner@mail.ru")).getId();
+
+        itemRepository.markOwnerRemoved(ownerId);
+
+        assertTrue(itemRepository.removeItemsOfOwner(ownerId, 100).isEmpty());
+        assertFalse(itemRepository.isOwnerRemoved(ownerId));
+    }
+
+    @Test
+    void storeDoesNotResolveZeroIdToAnotherItem() {
+        ItemStore store = createStore();
+        Item item = new Item(1, "Дрель", "Простая дрель", true, 1, null, 1);
+        store.put(item);
+
+        assertNull(store.get(0));
+        assertFalse(store.replace(new Item(0, "Отвертка", "Крестовая", true, 1, null, 1),
+                new Item(0, "Отвертка", "Крестовая", true, 1, null, 2)));
+        assertNull(store.remove(0));
+        assertEquals("Дрель", store.get(1).getName());
+
+        store.remove(1);
+        assertNull(store.get(0));
+        assertEquals(0, store.size());
+    }
+
+    private List<Long> runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int number = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.run(number);
+                }));
+            }
+            start.countDown();
+            List<Long> results = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                results.addAll(future.get(1, TimeUnit.MINUTES));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface ThreadTask {
+        List<Long> run(int thread);
+    }
+}
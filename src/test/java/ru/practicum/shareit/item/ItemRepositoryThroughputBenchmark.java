@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.event.BackpressurePolicy;
+import ru.practicum.shareit.event.DomainEventBus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.storage.Journal;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class ItemRepositoryThroughputBenchmark {
+
+    private static final int OWNERS = 100;
+    private static final int PRELOADED_ITEMS = 10_000;
+
+    private DomainEventBus eventBus;
+    private ItemRepositoryImpl itemRepository;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        eventBus = new DomainEventBus(1024, 64, BackpressurePolicy.BLOCK);
+        ItemSearchCache searchCache = new ItemSearchCache(1000, eventBus);
+        searchCache.subscribe();
+        itemRepository = new ItemRepositoryImpl(new ObjectItemStore(), new GeneratorItemId(), Journal.NOOP,
+                searchCache, eventBus, true);
+        for (int i = 0; i < PRELOADED_ITEMS; i++) {
+            itemRepository.createItem(new Item(0, "Дрель " + i, "Простая дрель " + i, true, 0, null), ownerOf(i + 1));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws InterruptedException {
+        eventBus.destroy();
+    }
+
+    @Benchmark
+    public Item createItem() {
+        long ownerId = ThreadLocalRandom.current().nextLong(1, OWNERS + 1);
+        return itemRepository.createItem(new Item(0, "Отвертка", "Аккумуляторная отвертка", true, 0, null), ownerId);
+    }
+
+    @Benchmark
+    public Item updateItem() {
+        long itemId = ThreadLocalRandom.current().nextLong(1, PRELOADED_ITEMS + 1);
+        String name = "Дрель " + ThreadLocalRandom.current().nextInt(PRELOADED_ITEMS);
+        return itemRepository.updateItem(new Item(0, name, null, null, 0, null), ownerOf(itemId), itemId);
+    }
+
+    private static long ownerOf(long itemId) {
+        return (itemId - 1) % OWNERS + 1;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemRepositoryThroughputBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.event.BackpressurePolicy;
+import ru.practicum.shareit.event.DomainEventBus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+
+    private final DomainEventBus eventBus = new DomainEventBus(16, 16, BackpressurePolicy.BLOCK);
+    private final ItemSearchCache cache = new ItemSearchCache(100, eventBus);
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache.subscribe();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        eventBus.destroy();
+    }
+
+    @Test
+    void changedItemDropsOnlyQueriesOccurringInIt() {
+        search("Дрель");
+        search("молоток");
+        search("дрель");
+        search("дрел");
+        assertEquals(3, searches.get());
+
+        Item oldItem = new Item(1, "Отвертка", "Крестовая", true, 1, null);
+        cache.onEvents(List.of(new ItemUpdatedEvent(oldItem, oldItem.withDescription("Крестовая, к дрели не подходит"))));
+        search("молоток");
+        search("дрель");
+        assertEquals(3, searches.get());
+        search("дрел");
+        assertEquals(4, searches.get());
+
+        cache.onEvents(List.of(new ItemCreatedEvent(new Item(2, "Молоток", "Большой", true, 1, null))));
+        search("дрель");
+        search("молоток");
+        assertEquals(5, searches.get());
+    }
+
+    @Test
+    void queriesDifferingInCaseShareOneEntry() {
+        search("Дрель");
+        search("дрель");
+        cache.get("ДРЕЛЬ", 0, 10, query -> {
+            throw new AssertionError("Запрос не из кэша: " + query);
+        });
+        assertEquals(1, searches.get());
+        cache.get("Пила", 0, 10, query -> {
+            assertEquals("пила", query);
+            return List.of();
+        });
+    }
+
+    @Test
+    void resultComputedDuringChangeIsNotCached() {
+        cache.get("дрель", 0, 10, query -> {
+            searches.incrementAndGet();
+            cache.invalidate(List.of(new Item(1, "Отвертка", "Крестовая", true, 1, null)));
+            return List.of(1L);
+        });
+        search("дрель");
+        assertEquals(2, searches.get());
+    }
+
+    private void search(String text) {
+        cache.get(text, 0, 10, query -> {
+            searches.incrementAndGet();
+            return List.of();
+        });
+    }
+}
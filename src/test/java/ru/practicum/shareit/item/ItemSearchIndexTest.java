@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchIndexTest {
+
+    private final ItemStore store = new ObjectItemStore();
+    private final ItemSearch index = createSearch(store);
+
+    ItemSearch createSearch(ItemStore store) {
+        return new ItemSearchIndex();
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatchesAndKeepsTopK() {
+        add(new Item(1, "Молоток", "Подходит к дрели", true, 1, null));
+        add(new Item(2, "Дрель", "Ударная", true, 1, null));
+        add(new Item(3, "Отвертка", "Крестовая", true, 1, null));
+        add(new Item(4, "Дрель аккумуляторная", "Дрель с двумя аккумуляторами", true, 1, null));
+        add(new Item(5, "Дрель", "Сломана", false, 1, null));
+
+        assertEquals(List.of(2L, 4L, 1L), index.searchRanked("дрел", 10));
+        assertEquals(List.of(2L, 4L), index.searchRanked("ДРЕЛ", 2));
+        assertEquals(List.of(4L, 2L), index.searchRanked("дрель аккум", 10));
+        assertEquals(List.of(), index.searchRanked(" , ", 10));
+        assertEquals(List.of(), index.searchRanked("дрел", 0));
+    }
+
+    @Test
+    void shortQueriesMergePostingsInIdOrderFromTheCursor() {
+        add(new Item(1, "Дрель", "Дом", true, 1, null));
+        add(new Item(2, "Пила", "Ручная", true, 1, null));
+        add(new Item(3, "Доска", "Дуб", true, 1, null));
+        add(new Item(4, "Диван", "Сломан", false, 1, null));
+        add(new Item(5, "Дверь", "Дубовая", true, 1, null));
+        add(new Item(6, "Клей", "Для дерева", true, 1, null));
+
+        assertEquals(List.of(1L, 3L, 5L, 6L), index.search("д", 0, 10));
+        assertEquals(List.of(3L, 5L), index.search("Д", 1, 2));
+        assertEquals(List.of(6L), index.search("д", 5, 2));
+        assertEquals(List.of(), index.search("д", 6, 2));
+        assertEquals(List.of(3L, 5L), index.search("ду", 0, 10));
+        assertEquals(List.of(5L), index.search("дуб", 3, 10));
+    }
+
+    private void add(Item item) {
+        store.put(item);
+        index.index(item);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.storage.Journal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemStoreFootprintTest {
+
+    private static final int ITEMS = 2_000;
+
+    /**
+     * Колоночная раскладка экономит память, только если поиск не держит свои копии текста: триграммный индекс
+     * весит больше самого хранилища, поэтому сравниваются репозитории с поиском просмотром хранилища.
+     */
+    @Test
+    void columnarRepositoryWithoutSearchIndexTakesLessHeapPerItem() {
+        double indexed = bytesPerItem(new ObjectItemStore(), true);
+        double objects = bytesPerItem(new ObjectItemStore(), false);
+        double columnar = bytesPerItem(new ColumnarItemStore(), false);
+        assertTrue(columnar < objects * 0.8, () -> "Колонки " + columnar + " байт на вещь, объекты " + objects);
+        assertTrue(columnar < indexed * 0.3,
+                () -> "Колонки " + columnar + " байт на вещь, объекты с индексом поиска " + indexed);
+    }
+
+    @Test
+    void columnarStoreReusesSlotsAndKeepsFields() {
+        ItemStore store = new ColumnarItemStore();
+        for (long id = 1; id <= 5000; id++) {
+            store.put(item(id));
+        }
+        for (long id = 1; id <= 5000; id += 2) {
+            assertEquals(item(id), store.remove(id));
+        }
+        Item unavailable = new Item(10_001, "Дрель", "", null, 3, 7L);
+        store.put(unavailable);
+        assertEquals(2501, store.size());
+        assertEquals(unavailable, store.get(10_001));
+        assertNull(store.get(1));
+        Item renamed = item(2).withName("Отвертка").withVersion(1);
+        assertTrue(store.replace(item(2), renamed));
+        assertFalse(store.replace(item(2), item(2).withVersion(1)));
+
+        List<Item> all = new ArrayList<>();
+        store.forEach(all::add);
+        assertEquals(2501, all.size());
+        for (long id = 2; id <= 5000; id += 2) {
+            assertEquals(id == 2 ? renamed : item(id), store.get(id));
+        }
+    }
+
+    /**
+     * Прирост всего репозитория - хранилища, индексов по владельцу и запросу и поискового индекса - на вещь.
+     * Кэш поиска и шина событий от числа вещей не зависят, а восстановление к ним не обращается, поэтому
+     * репозиторий собирается без них: JOL не может обойти скрытые лямбда-классы Caffeine.
+     */
+    private static double bytesPerItem(ItemStore store, boolean searchIndexEnabled) {
+        ItemRepositoryImpl repository = new ItemRepositoryImpl(store, new GeneratorItemId(), Journal.NOOP, null,
+                null, searchIndexEnabled);
+        long empty = GraphLayout.parseInstance(repository).totalSize();
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(item(id));
+        }
+        repository.restore(items);
+        return (GraphLayout.parseInstance(repository).totalSize() - empty) / (double) ITEMS;
+    }
+
+    private static Item item(long id) {
+        return new Item(id, "Дрель " + id, "Аккумуляторная дрель " + id, id % 3 != 0, id % 100 + 1,
+                id % 10 == 0 ? id / 10 : null);
+    }
+}
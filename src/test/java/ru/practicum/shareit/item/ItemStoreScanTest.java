@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item;
+
+class ItemStoreScanTest extends ItemSearchIndexTest {
+
+    @Override
+    ItemSearch createSearch(ItemStore store) {
+        return new ItemStoreScan(store);
+    }
+}
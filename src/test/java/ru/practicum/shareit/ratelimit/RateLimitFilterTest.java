@@ -0,0 +1,44 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.rate-limit.rules[0].method=GET",
+        "shareit.rate-limit.rules[0].path=/users",
+        "shareit.rate-limit.rules[0].capacity=3",
+        "shareit.rate-limit.rules[0].refill-per-second=0.01"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "rate-limit"})
+class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Test
+    void answersTooManyRequestsOnceCapacityIsSpent() throws Exception {
+        int capacity = properties.getRules().get(0).getCapacity();
+        for (int i = 0; i < capacity; i++) {
+            mockMvc.perform(get("/users").header("X-Sharer-User-Id", "1"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/users").header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(get("/users").header("X-Sharer-User-Id", "2"))
+                .andExpect(status().isOk());
+    }
+}
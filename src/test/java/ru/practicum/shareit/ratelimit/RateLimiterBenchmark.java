@@ -0,0 +1,71 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки бюджета на каждый запрос: для эндпоинта с правилом (поиск корзины клиента и CAS)
+ * и для эндпоинта без правила (только сопоставление пути).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 1000;
+
+    private RateLimiter rateLimiter;
+    private MockHttpServletRequest[] searchRequests;
+    private MockHttpServletRequest itemRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RateLimitProperties.Rule search = new RateLimitProperties.Rule();
+        search.setPath("/items/search");
+        search.setCapacity(1_000_000);
+        search.setRefillPerSecond(1_000_000);
+        RateLimitProperties.Rule users = new RateLimitProperties.Rule();
+        users.setMethod("GET");
+        users.setPath("/users");
+        users.setCapacity(1_000_000);
+        users.setRefillPerSecond(1_000_000);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(users, search));
+        rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry(), new SyncTaskExecutor());
+        searchRequests = new MockHttpServletRequest[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            searchRequests[i] = new MockHttpServletRequest("GET", "/items/search");
+            searchRequests[i].addHeader("X-Sharer-User-Id", String.valueOf(i + 1));
+        }
+        itemRequest = new MockHttpServletRequest("GET", "/items/42");
+    }
+
+    @Benchmark
+    public long limitedEndpoint() {
+        return rateLimiter.acquire(searchRequests[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    @Benchmark
+    public long unlimitedEndpoint() {
+        return rateLimiter.acquire(itemRequest);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
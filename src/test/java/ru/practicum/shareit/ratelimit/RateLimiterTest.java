@@ -0,0 +1,87 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void limitsEachClientOfEachEndpointSeparately() {
+        RateLimiter rateLimiter = new RateLimiter(properties(2, 1000), new SimpleMeterRegistry(),
+                new SyncTaskExecutor());
+
+        assertEquals(0, rateLimiter.acquire(request("GET", "/items/search", "1")));
+        assertEquals(0, rateLimiter.acquire(request("GET", "/items/search", "1")));
+        long wait = rateLimiter.acquire(request("GET", "/items/search", "1"));
+        assertTrue(wait > 0 && wait <= Duration.ofSeconds(1).toNanos(), String.valueOf(wait));
+
+        assertEquals(0, rateLimiter.acquire(request("GET", "/items/search", "2")));
+        assertEquals(0, rateLimiter.acquire(request("GET", "/items/search", null)));
+        assertEquals(0, rateLimiter.acquire(request("POST", "/users", "1")));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.acquire(request("GET", "/items/1", "1")));
+        }
+    }
+
+    @Test
+    void clientsOverMaxKeysShareOneBucketPerAddress() {
+        RateLimiter rateLimiter = new RateLimiter(properties(1, 2), new SimpleMeterRegistry(),
+                new SyncTaskExecutor());
+
+        assertEquals(0, rateLimiter.acquire(request("GET", "/users", "1")));
+        assertEquals(0, rateLimiter.acquire(request("GET", "/users", "2")));
+        assertEquals(0, rateLimiter.acquire(request("GET", "/users", "3")));
+        assertNotEquals(0, rateLimiter.acquire(request("GET", "/users", "4")));
+
+        assertEquals(0, rateLimiter.acquire(request("GET", "/users", "5", "10.0.0.2")));
+        assertNotEquals(0, rateLimiter.acquire(request("GET", "/users", "6", "10.0.0.2")));
+        assertEquals(0, rateLimiter.acquire(request("GET", "/users", "7", "10.0.0.3")));
+    }
+
+    @Test
+    void addressesOverMaxKeysShareTheLastBucket() {
+        RateLimiter rateLimiter = new RateLimiter(properties(1, 1), new SimpleMeterRegistry(),
+                new SyncTaskExecutor());
+
+        assertEquals(0, rateLimiter.acquire(request("GET", "/users", "1", "10.0.0.1")));
+        assertEquals(0, rateLimiter.acquire(request("GET", "/users", "2", "10.0.0.2")));
+        assertEquals(0, rateLimiter.acquire(request("GET", "/users", "3", "10.0.0.3")));
+        assertNotEquals(0, rateLimiter.acquire(request("GET", "/users", "4", "10.0.0.4")));
+    }
+
+    private static RateLimitProperties properties(int capacity, int maxKeys) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxKeys(maxKeys);
+        RateLimitProperties.Rule search = new RateLimitProperties.Rule();
+        search.setPath("/items/search");
+        search.setCapacity(capacity);
+        search.setRefillPerSecond(1);
+        RateLimitProperties.Rule users = new RateLimitProperties.Rule();
+        users.setMethod("GET");
+        users.setPath("/users");
+        users.setCapacity(capacity);
+        users.setRefillPerSecond(1);
+        properties.setRules(List.of(search, users));
+        return properties;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String userId) {
+        return request(method, path, userId, "127.0.0.1");
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String userId, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(address);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.requests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserPrincipal;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.user.UserPrincipalArgumentResolver.USER_ID_IN_HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemRequestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    private long requesterId;
+    private long otherId;
+
+    @BeforeEach
+    void setUp() {
+        requesterId = createUser();
+        otherId = createUser();
+    }
+
+    @Test
+    void createsRequestAndShowsItsAnswers() throws Exception {
+        long requestId = createRequest(requesterId, "Нужна дрель");
+        itemService.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, requestId),
+                new UserPrincipal(otherId));
+
+        mockMvc.perform(get("/requests").header(USER_ID_IN_HEADER, requesterId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains((int) requestId)))
+                .andExpect(jsonPath("$[0].items[*].name").value(contains("Дрель")));
+        mockMvc.perform(get("/requests/{requestId}", requestId).header(USER_ID_IN_HEADER, otherId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Нужна дрель"))
+                .andExpect(jsonPath("$.items", hasSize(1)));
+        mockMvc.perform(get("/requests/{requestId}", requestId + 1000).header(USER_ID_IN_HEADER, otherId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/requests").header(USER_ID_IN_HEADER, requesterId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\" \"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void pagesRequestsOfOthersNewestFirstByCursor() throws Exception {
+        long first = createRequest(otherId, "Первый");
+        createRequest(requesterId, "Свой");
+        long second = createRequest(otherId, "Второй");
+        long third = createRequest(otherId, "Третий");
+
+        mockMvc.perform(get("/requests/all").header(USER_ID_IN_HEADER, requesterId).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains((int) third, (int) second)));
+        mockMvc.perform(get("/requests/all").header(USER_ID_IN_HEADER, requesterId)
+                        .param("after", String.valueOf(second)).param("size", "1"))
+                .andExpect(jsonPath("$[*].id").value(contains((int) first)));
+        mockMvc.perform(get("/requests/all").header(USER_ID_IN_HEADER, otherId)
+                        .param("after", String.valueOf(third)).param("size", "10"))
+                .andExpect(jsonPath("$[*].description").value(hasItem("Свой")))
+                .andExpect(jsonPath("$[*].description").value(not(hasItem("Первый"))));
+        mockMvc.perform(get("/requests/all").header(USER_ID_IN_HEADER, requesterId).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/requests/all").header(USER_ID_IN_HEADER, requesterId).param("after", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long createUser() {
+        return userService.createUser(new User(0, "user", UUID.randomUUID() + "@mail.ru")).getId();
+    }
+
+    private long createRequest(long userId, String description) throws Exception {
+        String body = mockMvc.perform(post("/requests").header(USER_ID_IN_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"" + description + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
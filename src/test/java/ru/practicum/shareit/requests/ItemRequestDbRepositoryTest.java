@@ -0,0 +1,49 @@
+package ru.practicum.shareit.requests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles({"test", "db"})
+class ItemRequestDbRepositoryTest {
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void storesRequestsAndPagesOthersNewestFirst() {
+        assertInstanceOf(ItemRequestDbRepository.class, itemRequestRepository);
+        long requesterId = userRepository.createUser(new User(0, "requester", "requester@mail.ru")).getId();
+        long otherId = userRepository.createUser(new User(0, "other", "other@mail.ru")).getId();
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        ItemRequest first = create(otherId, "Первый", created);
+        ItemRequest own = create(requesterId, "Свой", created);
+        ItemRequest second = create(otherId, "Второй", created);
+
+        assertEquals(first, itemRequestRepository.findRequestById(first.getId()).orElseThrow());
+        assertEquals(List.of(own), itemRequestRepository.getRequestsByRequester(requesterId));
+        assertEquals(List.of(second, first), itemRequestRepository.getRequestsOfOthers(requesterId, 0, 10));
+        assertEquals(List.of(first), itemRequestRepository.getRequestsOfOthers(requesterId, second.getId(), 10));
+        assertEquals(List.of(own), itemRequestRepository.getRequestsOfOthers(otherId, 0, 10));
+        assertTrue(itemRequestRepository.findRequestById(second.getId() + 1).isEmpty());
+    }
+
+    private ItemRequest create(long requesterId, String description, LocalDateTime created) {
+        return itemRequestRepository.createRequest(new ItemRequest(0, description, requesterId, created));
+    }
+}
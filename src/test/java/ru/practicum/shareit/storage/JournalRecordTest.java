@@ -0,0 +1,93 @@
+package ru.practicum.shareit.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalRecordTest {
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @Test
+    void decodesWhatWasEncoded() {
+        User user = new User(7, "user", "user@mail.ru", 3);
+
+        JournalRecord.decode(payload(JournalRecord.userSaved(user), 0), visitor());
+
+        assertEquals(List.of(user), users);
+        assertEquals(3, users.get(0).getVersion());
+    }
+
+    @Test
+    void decodesBookingWithNanosecondsAndStatus() {
+        Booking booking = new Booking(5, LocalDateTime.of(2030, 1, 1, 10, 0, 0, 123),
+                LocalDateTime.of(2030, 1, 2, 10, 0), 2, 3, Status.APPROVED);
+
+        JournalRecord.decode(payload(JournalRecord.bookingSaved(booking, 4), 0), visitor());
+
+        assertEquals(List.of(booking), bookings);
+    }
+
+    @Test
+    void rejectsRecordWithMissingOrExtraBytes() {
+        JournalRecord record = JournalRecord.userSaved(new User(7, "user", "user@mail.ru", 3));
+
+        assertThrows(BufferUnderflowException.class,
+                () -> JournalRecord.decode(payload(record, -Long.BYTES), visitor()));
+        assertThrows(IllegalStateException.class, () -> JournalRecord.decode(payload(record, 1), visitor()));
+        assertTrue(users.isEmpty());
+    }
+
+    private static ByteBuffer payload(JournalRecord record, int extraBytes) {
+        ByteBuffer frame = ByteBuffer.allocate(record.frameLength() + Math.max(extraBytes, 0));
+        record.writeFrame(frame);
+        frame.position(JournalRecord.FRAME_HEADER).limit(record.frameLength() + extraBytes);
+        return frame;
+    }
+
+    private JournalRecord.Visitor visitor() {
+        return new JournalRecord.Visitor() {
+            @Override
+            public void userSaved(User user) {
+                users.add(user);
+            }
+
+            @Override
+            public void userDeleted(long userId) {
+            }
+
+            @Override
+            public void itemSaved(Item item) {
+            }
+
+            @Override
+            public void itemDeleted(long itemId) {
+            }
+
+            @Override
+            public void requestSaved(ItemRequest request) {
+            }
+
+            @Override
+            public void bookingSaved(Booking booking, long ownerId) {
+                bookings.add(booking);
+            }
+
+            @Override
+            public void sequence(JournalRecord.Sequence sequence, long value) {
+            }
+        };
+    }
+}
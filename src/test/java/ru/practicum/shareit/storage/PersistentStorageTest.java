@@ -0,0 +1,215 @@
+package ru.practicum.shareit.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.booking.BookingRepositoryImpl;
+import ru.practicum.shareit.booking.GeneratorBookingId;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.event.BackpressurePolicy;
+import ru.practicum.shareit.event.DomainEventBus;
+import ru.practicum.shareit.item.GeneratorItemId;
+import ru.practicum.shareit.item.ItemRepositoryImpl;
+import ru.practicum.shareit.item.ItemSearchCache;
+import ru.practicum.shareit.item.ObjectItemStore;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.GeneratorItemRequestId;
+import ru.practicum.shareit.requests.ItemRequestRepositoryImpl;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.GeneratorUserId;
+import ru.practicum.shareit.user.UserRepositoryImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentStorageTest {
+
+    @TempDir
+    Path directory;
+
+    private FileJournal journal;
+    private DomainEventBus eventBus;
+    private PersistentStorage storage;
+    private UserRepositoryImpl userRepository;
+    private ItemRepositoryImpl itemRepository;
+    private ItemRequestRepositoryImpl requestRepository;
+    private BookingRepositoryImpl bookingRepository;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        storage.stop();
+        journal.close();
+        eventBus.destroy();
+    }
+
+    @Test
+    void restoresSnapshotAndJournalTailAfterRestart() throws Exception {
+        start();
+        long ownerId = userRepository.createUser(new User(0, "owner", "owner@mail.ru")).getId();
+        long removedId = userRepository.createUser(new User(0, "removed", "removed@mail.ru")).getId();
+        long itemId = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), ownerId)
+                .getId();
+        storage.snapshot();
+        itemRepository.updateItem(new Item(0, null, "Ударная дрель", false, 0, null), ownerId, itemId);
+        userRepository.deleteUser(removedId);
+        restart();
+        Files.write(directory.resolve("wal-1.log"), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+        restart();
+
+        assertEquals("owner@mail.ru", userRepository.findUserById(ownerId).orElseThrow().getEmail());
+        assertTrue(userRepository.findUserById(removedId).isEmpty());
+        Item item = itemRepository.findItemById(itemId).orElseThrow();
+        assertEquals("Ударная дрель", item.getDescription());
+        assertFalse(item.getAvailable());
+        assertEquals(List.of(item), itemRepository.getAllItemsByUser(ownerId, 0, 10));
+        assertEquals(removedId + 1, userRepository.createUser(new User(0, "new", "new@mail.ru")).getId());
+    }
+
+    @Test
+    void restoresItemRequestsAndTheirSequence() throws Exception {
+        start();
+        long requesterId = userRepository.createUser(new User(0, "requester", "requester@mail.ru")).getId();
+        long ownerId = userRepository.createUser(new User(0, "owner", "owner@mail.ru")).getId();
+        ItemRequest request = requestRepository.createRequest(
+                new ItemRequest(0, "Нужна дрель", requesterId, LocalDateTime.of(2030, 1, 1, 10, 0, 0, 123)));
+        storage.snapshot();
+        ItemRequest journaled = requestRepository.createRequest(
+                new ItemRequest(0, "Нужна пила", requesterId, LocalDateTime.of(2030, 1, 2, 10, 0)));
+        long itemId = itemRepository.createItem(new Item(0, "Пила", "Острая пила", true, 0, journaled.getId()),
+                ownerId).getId();
+        restart();
+
+        assertEquals(request, requestRepository.findRequestById(request.getId()).orElseThrow());
+        assertEquals(List.of(journaled, request), requestRepository.getRequestsByRequester(requesterId));
+        assertEquals(List.of(itemRepository.findItemById(itemId).orElseThrow()),
+                itemRepository.getItemsByRequestIds(List.of(journaled.getId())).get(journaled.getId()));
+        ItemRequest created = requestRepository.createRequest(
+                new ItemRequest(0, "Нужен молоток", requesterId, LocalDateTime.of(2030, 1, 3, 10, 0)));
+        assertEquals(journaled.getId() + 1, created.getId());
+        assertTrue(itemRepository.getItemsByRequestIds(List.of(created.getId())).isEmpty());
+    }
+
+    @Test
+    void restoresBookingsWithTheirReviewAndSequence() throws Exception {
+        start();
+        LocalDateTime now = LocalDateTime.of(2030, 1, 10, 12, 0);
+        Booking approved = bookingRepository.approveBooking(bookingRepository.createBooking(
+                new Booking(0, now.plusDays(1), now.plusDays(2), 1, 20, Status.WAITING), 10).getId());
+        storage.snapshot();
+        Booking waiting = bookingRepository.createBooking(
+                new Booking(0, now.plusDays(3), now.plusDays(4), 1, 20, Status.WAITING), 10);
+        Booking rejected = bookingRepository.rejectBooking(bookingRepository.createBooking(
+                new Booking(0, now.plusDays(5), now.plusDays(6), 1, 20, Status.WAITING), 10).getId());
+        try (Journal.Entry entry = journal.begin()) {
+            entry.append(JournalRecord.bookingSaved(rejected.withStatus(Status.WAITING), 10));
+        }
+        restart();
+
+        assertEquals(List.of(rejected, waiting, approved),
+                bookingRepository.getBookingsByOwner(10, BookingState.ALL, now, 0, 10));
+        assertEquals(List.of(waiting), bookingRepository.getBookingsByBooker(20, BookingState.WAITING, now, 0, 10));
+        assertEquals(List.of(rejected),
+                bookingRepository.getBookingsByBooker(20, BookingState.REJECTED, now, 0, 10));
+        assertEquals(approved, bookingRepository.getNextBooking(1, now));
+        assertTrue(bookingRepository.hasApprovedOverlap(1, now.plusDays(1), now.plusDays(2)));
+        assertEquals(rejected.getId() + 1, bookingRepository.createBooking(
+                new Booking(0, now.plusDays(7), now.plusDays(8), 1, 20, Status.WAITING), 10).getId());
+    }
+
+    @Test
+    void changeJournaledAfterDeletionDoesNotResurrectItem() throws Exception {
+        start();
+        long ownerId = userRepository.createUser(new User(0, "owner", "owner@mail.ru")).getId();
+        Item item = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), ownerId);
+        itemRepository.markOwnerRemoved(ownerId);
+        itemRepository.removeItemsOfOwner(ownerId, 10);
+        try (Journal.Entry entry = journal.begin()) {
+            entry.append(JournalRecord.itemSaved(item.withName("Отвертка").withVersion(2)));
+        }
+        restart();
+
+        assertTrue(itemRepository.findItemById(item.getId()).isEmpty());
+        assertTrue(itemRepository.searchItemsByDescription("отвертка", 0, 10).isEmpty());
+    }
+
+    @Test
+    void changesJournaledOutOfOrderRestoreTheNewestVersion() throws Exception {
+        start();
+        User owner = userRepository.createUser(new User(0, "owner", "owner@mail.ru"));
+        User removed = userRepository.createUser(new User(0, "removed", "removed@mail.ru"));
+        Item item = itemRepository.createItem(new Item(0, "Дрель", "Простая дрель", true, 0, null), owner.getId());
+        try (Journal.Entry entry = journal.begin()) {
+            entry.append(JournalRecord.userSaved(owner.withName("third").withVersion(3)));
+            entry.append(JournalRecord.userSaved(owner.withName("second").withVersion(2)));
+            entry.append(JournalRecord.itemSaved(item.withName("Отвертка").withVersion(3)));
+            entry.append(JournalRecord.itemSaved(item.withName("Молоток").withVersion(2)));
+            entry.append(JournalRecord.userDeleted(removed.getId()));
+            entry.append(JournalRecord.userSaved(removed.withName("late").withVersion(2)));
+        }
+        restart();
+
+        User restoredOwner = userRepository.findUserById(owner.getId()).orElseThrow();
+        assertEquals("third", restoredOwner.getName());
+        assertEquals(3, restoredOwner.getVersion());
+        Item restoredItem = itemRepository.findItemById(item.getId()).orElseThrow();
+        assertEquals("Отвертка", restoredItem.getName());
+        assertEquals(3, restoredItem.getVersion());
+        assertTrue(itemRepository.searchItemsByDescription("молоток", 0, 10).isEmpty());
+        assertTrue(userRepository.findUserById(removed.getId()).isEmpty());
+    }
+
+    @Test
+    void closeWritesStartedChangesAndRejectsNewOnes() throws Exception {
+        start();
+        Item item = new Item(1, "Дрель", "Простая дрель", true, 1, null);
+        CompletableFuture<Void> closing;
+        try (Journal.Entry entry = journal.begin()) {
+            closing = CompletableFuture.runAsync(journal::close);
+            Thread.sleep(100);
+            assertFalse(closing.isDone());
+            entry.append(JournalRecord.itemSaved(item));
+        }
+        closing.get(10, TimeUnit.SECONDS);
+
+        assertThrows(IllegalStateException.class, () -> journal.begin());
+        assertThrows(IllegalStateException.class,
+                () -> userRepository.createUser(new User(0, "late", "late@mail.ru")));
+    }
+
+    private void restart() throws IOException, InterruptedException {
+        tearDown();
+        start();
+    }
+
+    private void start() {
+        journal = new FileJournal(directory, true, 1024);
+        GeneratorUserId generatorUserId = new GeneratorUserId();
+        GeneratorItemId generatorItemId = new GeneratorItemId();
+        GeneratorItemRequestId generatorItemRequestId = new GeneratorItemRequestId();
+        GeneratorBookingId generatorBookingId = new GeneratorBookingId();
+        eventBus = new DomainEventBus(1024, 64, BackpressurePolicy.BLOCK);
+        userRepository = new UserRepositoryImpl(generatorUserId, journal, eventBus);
+        ItemSearchCache searchCache = new ItemSearchCache(1000, eventBus);
+        searchCache.subscribe();
+        itemRepository = new ItemRepositoryImpl(new ObjectItemStore(), generatorItemId, journal, searchCache,
+                eventBus, true);
+        requestRepository = new ItemRequestRepositoryImpl(generatorItemRequestId, journal);
+        bookingRepository = new BookingRepositoryImpl(generatorBookingId, journal);
+        storage = new PersistentStorage(journal, userRepository, itemRepository, requestRepository,
+                bookingRepository, generatorUserId, generatorItemId, generatorItemRequestId, generatorBookingId,
+                Duration.ofHours(1));
+        storage.recover();
+    }
+}
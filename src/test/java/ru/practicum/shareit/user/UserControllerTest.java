@@ -0,0 +1,157 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void pagesUsersByCursor() throws Exception {
+        List<Long> ids = createUsers(3);
+
+        mockMvc.perform(get("/users").param("after", String.valueOf(ids.get(0) - 1)).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(ids.get(0).intValue(), ids.get(1).intValue())));
+        mockMvc.perform(get("/users").param("after", ids.get(1).toString()).param("size", "1"))
+                .andExpect(jsonPath("$[*].id").value(contains(ids.get(2).intValue())));
+    }
+
+    @Test
+    void streamsUsersAsNdjson() throws Exception {
+        List<Long> ids = createUsers(2);
+
+        MvcResult started = mockMvc.perform(get("/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<Long> streamedIds = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            streamedIds.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertTrue(streamedIds.containsAll(ids));
+        assertEquals(streamedIds.stream().sorted().collect(Collectors.toList()), streamedIds);
+    }
+
+    @Test
+    void rejectsBadPageParameters() throws Exception {
+        mockMvc.perform(get("/users").param("after", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users").param("size", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users").param("size", "1001")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users").param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchRejectsDuplicateEmailsInsideOneRequest() throws Exception {
+        String email = UUID.randomUUID() + "@mail.ru";
+        String other = UUID.randomUUID() + "@mail.ru";
+        String body = "[{\"name\":\"first\",\"email\":\"" + email + "\"},"
+                + "{\"name\":\"duplicate\",\"email\":\"" + email.toUpperCase() + "\"},"
+                + "{\"name\":\"invalid\",\"email\":\"not-an-email\"},"
+                + "{\"name\":\"other\",\"email\":\"" + other + "\"}]";
+
+        String response = mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].index").value(contains(0, 1, 2, 3)))
+                .andExpect(jsonPath("$[*].status").value(contains(200, 409, 400, 200)))
+                .andExpect(jsonPath("$[0].result.email").value(email))
+                .andExpect(jsonPath("$[3].result.email").value(other))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        JsonNode results = objectMapper.readTree(response);
+        assertEquals(results.get(0).get("result").get("id").asLong() + 1,
+                results.get(3).get("result").get("id").asLong());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() throws Exception {
+        mockMvc.perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        String user = "{\"name\":\"user\",\"email\":\"oversized@mail.ru\"}";
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", Collections.nCopies(10_001, user)) + "]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unchangedUserIsNotModifiedAndStaleIfMatchIsRejected() throws Exception {
+        long userId = createUsers(1).get(0);
+        String etag = mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        String newEtag = mockMvc.perform(patch("/users/{id}", userId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(patch("/users/{id}", userId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"stale\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag))
+                .andExpect(jsonPath("$.name").value("renamed"));
+    }
+
+    private List<Long> createUsers(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(userService.createUser(new User(0, "user", UUID.randomUUID() + "@mail.ru")).getId());
+        }
+        return ids;
+    }
+}
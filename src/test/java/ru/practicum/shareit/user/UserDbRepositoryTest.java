@@ -0,0 +1,79 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles({"test", "db"})
+class UserDbRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createsUpdatesAndDeletesUser() {
+        assertInstanceOf(UserDbRepository.class, userRepository);
+        User user = userRepository.createUser(new User(0, "user", "user@mail.ru"));
+
+        userRepository.updateUser(user.getId(), new User(0, "updated", null));
+
+        assertEquals("updated", userRepository.findUserById(user.getId()).orElseThrow().getName());
+        assertEquals("user@mail.ru", userRepository.findUserById(user.getId()).orElseThrow().getEmail());
+        userRepository.deleteUser(user.getId());
+        assertTrue(userRepository.findUserById(user.getId()).isEmpty());
+    }
+
+    @Test
+    void conditionalUpdateChecksVersion() {
+        User user = userRepository.createUser(new User(0, "user", "versioned@mail.ru"));
+        assertEquals(1, user.getVersion());
+
+        User updated = userRepository.updateUser(user.getId(), new User(0, "renamed", null).withVersion(1));
+
+        assertEquals(2, updated.getVersion());
+        assertThrows(PreconditionFailedException.class,
+                () -> userRepository.updateUser(user.getId(), new User(0, "stale", null).withVersion(1)));
+        assertThrows(NotFoundException.class,
+                () -> userRepository.updateUser(user.getId() + 1, new User(0, "missing", null).withVersion(2)));
+        assertEquals(3, userRepository.updateUser(user.getId(), new User(0, "forced", null)).getVersion());
+        assertEquals("forced", userRepository.findUserById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void keepsEmailAsSentAndComparesItIgnoringCase() {
+        User user = userRepository.createUser(new User(0, "alice", "Alice@Mail.ru"));
+
+        assertEquals("Alice@Mail.ru", userRepository.findUserById(user.getId()).orElseThrow().getEmail());
+        userRepository.updateUser(user.getId(), new User(0, null, "ALICE@mail.ru"));
+        assertEquals("ALICE@mail.ru", userRepository.findUserById(user.getId()).orElseThrow().getEmail());
+        userRepository.updateUser(user.getId(), new User(0, null, "Alice.New@Mail.ru"));
+        assertDoesNotThrow(() -> userRepository.createUser(new User(0, "bob", "alice@mail.ru")));
+        assertThrows(ConflictingException.class,
+                () -> userRepository.createUser(new User(0, "carol", "alice.new@mail.ru")));
+    }
+
+    @Test
+    void rejectsDuplicateEmail() {
+        userRepository.createUser(new User(0, "first", "same@mail.ru"));
+        User second = userRepository.createUser(new User(0, "second", "other@mail.ru"));
+
+        assertThrows(ConflictingException.class,
+                () -> userRepository.createUser(new User(0, "third", "same@mail.ru")));
+        assertThrows(ConflictingException.class,
+                () -> userRepository.createUser(new User(0, "fourth", " SAME@Mail.ru")));
+        assertThrows(ConflictingException.class,
+                () -> userRepository.updateUser(second.getId(), new User(0, null, "same@mail.ru")));
+        assertThrows(ConflictingException.class,
+                () -> userRepository.updateUser(second.getId(), new User(0, null, "Same@mail.ru")));
+    }
+}
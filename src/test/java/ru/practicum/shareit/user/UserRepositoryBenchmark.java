@@ -0,0 +1,78 @@
+package ru.practicum.shareit.user;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.event.BackpressurePolicy;
+import ru.practicum.shareit.event.DomainEventBus;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Время создания пользователя с проверкой уникальности почты (новой и уже занятой) и постраничного
+ * чтения списка в зависимости от размера хранилища.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    private int userCount;
+
+    private UserRepositoryImpl userRepository;
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userRepository = new UserRepositoryImpl(new GeneratorUserId(), Journal.NOOP, new DomainEventBus(1024, 64, BackpressurePolicy.BLOCK));
+        for (int i = 0; i < userCount; i++) {
+            userRepository.createUser(new User(0, "user", nextEmail()));
+        }
+    }
+
+    @Benchmark
+    public User createUser() {
+        return userRepository.createUser(new User(0, "user", nextEmail()));
+    }
+
+    @Benchmark
+    public boolean createUserWithTakenEmail() {
+        long taken = ThreadLocalRandom.current().nextLong(userCount);
+        try {
+            userRepository.createUser(new User(0, "user", "user" + taken + "@mail.ru"));
+            return true;
+        } catch (ConflictingException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public List<User> getAllUsers() {
+        long after = ThreadLocalRandom.current().nextLong(Math.max(userCount - PAGE_SIZE, 1));
+        return userRepository.getAllUsers(after, PAGE_SIZE);
+    }
+
+    private String nextEmail() {
+        return "user" + emailSequence.getAndIncrement() + "@mail.ru";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserRepositoryBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.event.BackpressurePolicy;
+import ru.practicum.shareit.event.DomainEventBus;
+import ru.practicum.shareit.exception.ConflictingException;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRepositoryImplTest {
+
+    private DomainEventBus eventBus;
+    private UserRepositoryImpl userRepository;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new DomainEventBus(1024, 64, BackpressurePolicy.BLOCK);
+        userRepository = new UserRepositoryImpl(new GeneratorUserId(), Journal.NOOP, eventBus);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        eventBus.destroy();
+    }
+
+    @Test
+    void emailsAreComparedIgnoringCaseAndSpaces() {
+        userRepository.createUser(new User(0, "user", "User@Mail.ru"));
+
+        assertThrows(ConflictingException.class,
+                () -> userRepository.createUser(new User(0, "other", " user@mail.RU ")));
+    }
+
+    @Test
+    void changedEmailFreesTheOldOne() {
+        User user = userRepository.createUser(new User(0, "user", "old@mail.ru"));
+        User other = userRepository.createUser(new User(0, "other", "other@mail.ru"));
+
+        userRepository.updateUser(user.getId(), new User(0, null, "new@mail.ru"));
+        userRepository.updateUser(user.getId(), new User(0, null, "NEW@mail.ru"));
+
+        assertEquals("NEW@mail.ru", userRepository.findUserById(user.getId()).orElseThrow().getEmail());
+        assertThrows(ConflictingException.class,
+                () -> userRepository.updateUser(other.getId(), new User(0, null, "new@mail.ru")));
+        assertDoesNotThrow(() -> userRepository.createUser(new User(0, "third", "old@mail.ru")));
+    }
+
+    @Test
+    void emailOfDeletedUserCanBeRegisteredAgain() {
+        User user = userRepository.createUser(new User(0, "user", "user@mail.ru"));
+
+        userRepository.deleteUser(user.getId());
+        User again = userRepository.createUser(new User(0, "again", "USER@mail.ru"));
+
+        assertNotEquals(user.getId(), again.getId());
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneEmailCreateOneUser() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                String email = thread % 2 == 0 ? "same@mail.ru" : "SAME@mail.ru";
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        userRepository.createUser(new User(0, "user", email));
+                        return true;
+                    } catch (ConflictingException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int created = 0;
+            for (Future<Boolean> future : futures) {
+                created += future.get(1, TimeUnit.MINUTES) ? 1 : 0;
+            }
+            assertEquals(1, created);
+            assertEquals(1, userRepository.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void contendedUpdatesLoseNothingAndKeepOnlyTheCurrentEmail() throws Exception {
+        int threads = 8;
+        int updates = 200;
+        User user = userRepository.createUser(new User(0, "user", "user@mail.ru"));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int number = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < updates; i++) {
+                        User patch = number % 2 == 0
+                                ? new User(0, null, number + "-" + i + "@mail.ru")
+                                : new User(0, "user " + number + "-" + i, null);
+                        userRepository.updateUser(user.getId(), patch);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        User updated = userRepository.findUserById(user.getId()).orElseThrow();
+        assertEquals(1 + threads * updates, updated.getVersion());
+        assertTrue(updated.getName().endsWith("-" + (updates - 1)), updated.getName());
+        assertTrue(updated.getEmail().endsWith("-" + (updates - 1) + "@mail.ru"), updated.getEmail());
+        assertThrows(ConflictingException.class,
+                () -> userRepository.createUser(new User(0, "other", updated.getEmail())));
+        assertDoesNotThrow(() -> userRepository.createUser(new User(0, "other", "user@mail.ru")));
+        for (int thread = 0; thread < threads; thread += 2) {
+            for (int i = 0; i < updates; i++) {
+                String email = thread + "-" + i + "@mail.ru";
+                if (!email.equals(updated.getEmail())) {
+                    assertDoesNotThrow(() -> userRepository.createUser(new User(0, "other", email)), email);
+                }
+            }
+        }
+    }
+}